@@ -0,0 +1,114 @@
+package me.miyeoukman.lschat.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkChatEntry;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkFrameDecoder;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkMessageHandler;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkProfileCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Streaming {@link ChzzkFrameDecoder} against the original JsonParser tree walk
+ * (outer frame + profile + extras each parsed into a tree), plus the full
+ * {@link ChzzkMessageHandler} path that also fires the events. The "decoded"
+ * variants have a listener that reads sender and metadata, with and without
+ * the {@link ChzzkProfileCache} (the fixture's users repeat every frame, like regulars).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+public class ChzzkFrameBenchmark {
+
+    @Param({"chzzk-chat-93101.json", "chzzk-donation-93102.json"})
+    public String fixture;
+
+    private String frame;
+    private final ChzzkFrameDecoder decoder = new ChzzkFrameDecoder();
+    private ChzzkMessageHandler handler;
+    private ChzzkMessageHandler decodingHandler;
+    private ChzzkMessageHandler cachedHandler;
+    private final LongAdder delivered = new LongAdder();
+
+    @Setup
+    public void setup() {
+        frame = Fixtures.load(fixture);
+        LiveEventBus bus = new LiveEventBus(Logger.getLogger("bench"));
+        bus.subscribe(AsyncLiveChatEvent.class, event -> delivered.increment());
+        bus.subscribe(AsyncLiveDonationEvent.class, event -> delivered.increment());
+        handler = new ChzzkMessageHandler(bus);
+
+        LiveEventBus decodingBus = new LiveEventBus(Logger.getLogger("bench"));
+        decodingBus.subscribe(AsyncLiveChatEvent.class, event -> {
+            delivered.add(event.getSender().length());
+            delivered.add(event.getMetadata().getBadges().size());
+        });
+        decodingBus.subscribe(AsyncLiveDonationEvent.class, event -> delivered.add(event.getSender().length()));
+        decodingHandler = new ChzzkMessageHandler(decodingBus, "bench", null, null);
+        cachedHandler = new ChzzkMessageHandler(decodingBus, "bench", null, new ChzzkProfileCache(10000, 600_000L));
+    }
+
+    @Benchmark
+    public int handleFrame() {
+        return handler.handleFrame(frame);
+    }
+
+    @Benchmark
+    public int handleFrameDecoded() {
+        return decodingHandler.handleFrame(frame);
+    }
+
+    @Benchmark
+    public int handleFrameDecodedCached() {
+        return cachedHandler.handleFrame(frame);
+    }
+
+    @Benchmark
+    public void streamingDecoder(Blackhole bh) {
+        int cmd = decoder.decode(frame);
+        bh.consume(cmd);
+        for (int i = 0; i < decoder.entryCount(); i++) {
+            ChzzkChatEntry entry = decoder.entry(i);
+            // The profile stays a raw string until an event getter needs it
+            bh.consume(entry.getProfile());
+            bh.consume(entry.getMsg());
+            if (entry.getMsgTypeCode() == 10) bh.consume(decoder.readPayAmount(entry));
+        }
+    }
+
+    @Benchmark
+    public void treeParser(Blackhole bh) {
+        JsonObject json = JsonParser.parseString(frame).getAsJsonObject();
+        int cmd = json.get("cmd").getAsInt();
+        bh.consume(cmd);
+        JsonArray bdy = json.getAsJsonArray("bdy");
+        for (JsonElement element : bdy) {
+            JsonObject messageObj = element.getAsJsonObject();
+            JsonObject profile = JsonParser.parseString(messageObj.get("profile").getAsString()).getAsJsonObject();
+            bh.consume(profile.get("nickname").getAsString());
+            bh.consume(messageObj.get("msg").getAsString());
+            int msgTypeCode = messageObj.get("msgTypeCode").getAsInt();
+            if (msgTypeCode == 10) {
+                JsonObject extras = JsonParser.parseString(messageObj.get("extras").getAsString()).getAsJsonObject();
+                bh.consume(extras.get("payAmount").getAsInt());
+            }
+        }
+    }
+}
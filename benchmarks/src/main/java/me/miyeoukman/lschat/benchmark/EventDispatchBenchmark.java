@@ -0,0 +1,71 @@
+package me.miyeoukman.lschat.benchmark;
+
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import org.bukkit.Bukkit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/** Cost of firing an AsyncLiveChatEvent through the Bukkit plugin manager versus {@link LiveEventBus}. */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class EventDispatchBenchmark {
+
+    @Param({"0", "1", "8"})
+    public int listeners;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LiveEventBus bus = new LiveEventBus(Logger.getLogger("bench"));
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MockServer.install();
+        for (int i = 0; i < listeners; i++) {
+            MockServer.listen(AsyncLiveChatEvent.getHandlerList(), AsyncLiveChatEvent.class,
+                    event -> delivered.add(event.getMessage().length()));
+            bus.subscribe(AsyncLiveChatEvent.class, event -> delivered.add(event.getMessage().length()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockServer.unregisterAll(AsyncLiveChatEvent.getHandlerList());
+    }
+
+    @Benchmark
+    public void callEvent() {
+        Bukkit.getPluginManager().callEvent(new AsyncLiveChatEvent("Chzzk", "치즈러버", "오늘 방송 재밌네요 ㅋㅋㅋ"));
+    }
+
+    /** Several platform threads firing at once, like a multi-channel raid. */
+    @Benchmark
+    @Threads(4)
+    public void callEventContended() {
+        Bukkit.getPluginManager().callEvent(new AsyncLiveChatEvent("Chzzk", "치즈러버", "오늘 방송 재밌네요 ㅋㅋㅋ"));
+    }
+
+    @Benchmark
+    public void busPublish() {
+        bus.publish(AsyncLiveChatEvent.class, new AsyncLiveChatEvent("Chzzk", "치즈러버", "오늘 방송 재밌네요 ㅋㅋㅋ"));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void busPublishContended() {
+        bus.publish(AsyncLiveChatEvent.class, new AsyncLiveChatEvent("Chzzk", "치즈러버", "오늘 방송 재밌네요 ㅋㅋㅋ"));
+    }
+}
@@ -0,0 +1,91 @@
+package me.miyeoukman.lschat.benchmark;
+
+import me.miyeoukman.lschat.util.ExecutionScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 50 simulated channels, each a reader parked on the I/O executor the way an
+ * OkHttp WebSocket reader is, on virtual threads versus the platform-thread
+ * pool. Measures how long it takes a frame to reach every channel and prints
+ * the JVM thread counts for each mode.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    @Param({"virtual", "pool"})
+    public String mode;
+
+    @Param({"50"})
+    public int channels;
+
+    private ExecutionScope scope;
+    private BlockingQueue<CountDownLatch>[] sockets;
+    private int baselineThreads;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        baselineThreads = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        ExecutionScope.configure(ExecutionScope.Mode.fromConfig(mode));
+        scope = ExecutionScope.open("Bench-" + mode, channels);
+        sockets = new BlockingQueue[channels];
+        for (int i = 0; i < channels; i++) {
+            BlockingQueue<CountDownLatch> socket = new ArrayBlockingQueue<>(1);
+            sockets[i] = socket;
+            scope.io().execute(() -> {
+                try {
+                    while (true) {
+                        socket.take().countDown(); // "Read a frame" and dispatch it
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.printf("%n[%s -> %s] channels=%d, JVM threads: %d live (+%d), %d peak%n",
+                mode, scope.isVirtual() ? "virtual" : "pool", channels,
+                threads.getThreadCount(), threads.getThreadCount() - baselineThreads, threads.getPeakThreadCount());
+        scope.close(1000);
+    }
+
+    /** One frame to every channel; completes when all of them have handled it. */
+    @Benchmark
+    public void frameToAllChannels() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(channels);
+        for (BlockingQueue<CountDownLatch> socket : sockets) {
+            socket.put(done);
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,236 @@
+package me.miyeoukman.lschat.benchmark;
+
+import me.miyeoukman.lschat.alert.AlertSettings;
+import me.miyeoukman.lschat.alert.DonationScheduler;
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.delivery.DeliveryQueue;
+import me.miyeoukman.lschat.delivery.DeliveryTask;
+import me.miyeoukman.lschat.delivery.IngestLimiter;
+import me.miyeoukman.lschat.delivery.OverflowPolicy;
+import me.miyeoukman.lschat.delivery.PendingMessage;
+import me.miyeoukman.lschat.loadtest.LoadGeneratorPlatform;
+import me.miyeoukman.lschat.loadtest.LoadProfile;
+import me.miyeoukman.lschat.loadtest.LoadTestReport;
+import me.miyeoukman.lschat.loadtest.LoadTestRun;
+import me.miyeoukman.lschat.loadtest.MockLiveServer;
+import me.miyeoukman.lschat.loadtest.TrafficGenerator;
+import me.miyeoukman.lschat.metrics.LatencyHistogram;
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkMessageHandler;
+import me.miyeoukman.lschat.platform.youtube.YouTubeMessageHandler;
+import me.miyeoukman.lschat.render.LineRenderer;
+import me.miyeoukman.lschat.render.Presentation;
+import me.miyeoukman.lschat.viewer.ViewerRegistry;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Soak test without a Minecraft server: the plugin's ingest pipeline (decoders,
+ * event bus, limiter, render, queue, delivery task, donation scheduler) with the
+ * default config, driven by generated traffic while a loop stands in for the
+ * 20 TPS main thread. Lines are fanned out to fake viewers that discard them.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar me.miyeoukman.lschat.benchmark.LoadTestHarness \
+ *     &lt;msgs/s&gt; &lt;seconds&gt; [donation-every] [burst] [direct|mock] [nolimit] [viewers=20]
+ * </pre>
+ *
+ * In mock mode the traffic comes through {@link MockLiveServer} over a real
+ * WebSocket and HTTP polling, using the JDK clients.
+ */
+public final class LoadTestHarness {
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final int DRAIN_TICKS = 40;
+
+    private LoadTestHarness() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: LoadTestHarness <msgs/s> <seconds> [donation-every] [burst] [direct|mock] [nolimit] [viewers=20]");
+            System.exit(1);
+        }
+        boolean mock = false, limit = true;
+        int viewerCount = 20;
+        for (int i = 4; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("mock")) mock = true;
+            else if (args[i].equalsIgnoreCase("nolimit")) limit = false;
+            else if (args[i].startsWith("viewers=")) viewerCount = Integer.parseInt(args[i].substring("viewers=".length()));
+        }
+        LoadProfile profile = new LoadProfile(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                args.length >= 3 ? Integer.parseInt(args[2]) : 100, args.length >= 4 ? Integer.parseInt(args[3]) : 0,
+                0.2, mock ? LoadProfile.Mode.MOCK : LoadProfile.Mode.DIRECT);
+        Logger logger = Logger.getLogger("LoadTest");
+
+        // Same wiring and defaults as Main, minus Bukkit
+        LiveEventBus bus = new LiveEventBus(logger);
+        DeliveryQueue queue = new DeliveryQueue(1000, OverflowPolicy.COALESCE);
+        ViewerRegistry viewers = new ViewerRegistry("lschat_viewer");
+        LongAdder sent = new LongAdder();
+        for (int i = 0; i < viewerCount; i++) {
+            viewers.toggle(fakeViewer(sent));
+        }
+        DeliveryTask delivery = new DeliveryTask(queue, viewers);
+        delivery.configure(50, 2000L);
+        IngestLimiter limiter = new IngestLimiter();
+        limiter.configure(limit, 20, 40, 1, 3, 3000L, 10000, OverflowPolicy.COALESCE);
+        LineRenderer renderer = new LineRenderer("{color}[{platform}] &f{sender}: {message}",
+                "&6&l[DONATION] &e{streamer} &7- &f{message} &b({amount})",
+                "&6&l[DONATION] &e{count} donations &b({amount})");
+        // No tiers, so no boss bars, which would need a server
+        Presentation presentation = new Presentation(renderer, true, Sound.ENTITY_PLAYER_LEVELUP, AlertSettings.fromConfig(null));
+        DonationScheduler donations = new DonationScheduler(viewers, () -> presentation);
+        IngestLimiter.Sink sink = (platform, channel, sender, message) -> enqueue(queue, viewers, renderer, platform, channel, sender, message,
+                System.nanoTime());
+        bus.subscribe(AsyncLiveChatEvent.class, event -> {
+            IngestLimiter.Admission admission = limiter.admit(event.getPlatformId(), event.getChannel(), event.getSender(),
+                    event.getMessage(), System.nanoTime());
+            if (admission != IngestLimiter.Admission.ACCEPT) {
+                if (admission == IngestLimiter.Admission.LIMITED) Metrics.platform(event.getPlatform()).drop();
+                return;
+            }
+            enqueue(queue, viewers, renderer, event.getPlatformId(), event.getChannel(), event.getSender(), event.getMessage(),
+                    event.getReceivedAtNanos());
+        });
+        bus.subscribe(AsyncLiveDonationEvent.class, event -> donations.offer(event.getPlatformId(), event.getChannel(),
+                event.getSender(), event.getMessage(), event.getAmount()));
+
+        LoadTestReport.Baseline baseline = LoadTestReport.Baseline.capture();
+        TrafficGenerator generator = new TrafficGenerator(profile.getDonationEvery(), null);
+        Runnable stop = mock ? startMock(bus, logger, profile, generator) : startDirect(bus, logger, profile, generator);
+
+        LatencyHistogram ticks = new LatencyHistogram("tick");
+        LatencyHistogram tickWork = new LatencyHistogram("tick_work");
+        long lateTicks = 0;
+        long totalTicks = profile.getSeconds() * 20L + DRAIN_TICKS;
+        long last = System.nanoTime();
+        for (long tick = 0; tick < totalTicks; tick++) {
+            if (tick == profile.getSeconds() * 20L) stop.run();
+            long start = System.nanoTime();
+            long interval = start - last;
+            last = start;
+            ticks.recordNanos(interval);
+            if (interval / 1000L > LoadTestRun.LATE_TICK_MICROS) lateTicks++;
+            delivery.run();
+            donations.run();
+            if (tick % 5 == 0) limiter.flush(start, sink);
+            tickWork.recordNanos(System.nanoTime() - start);
+            long sleep = TICK_NANOS - (System.nanoTime() - start);
+            if (sleep > 0) Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+        }
+
+        for (String line : new LoadTestReport(profile, baseline, generator.getGenerated(), queue.getDropped(), queue.size(), ticks, lateTicks).toLines()) {
+            System.out.println(line);
+        }
+        System.out.println("Delivery work per tick: p50 " + tickWork.percentileMicros(0.5) + "us, p99 "
+                + tickWork.percentileMicros(0.99) + "us, max " + tickWork.getMaxMicros() + "us");
+        System.out.println("Sent " + sent.sum() + " lines to " + viewerCount + " viewers, "
+                + donations.getPendingCount() + " donation alerts still waiting");
+        System.exit(0);
+    }
+
+    // A viewer whose client discards everything; only counts what it was sent
+    private static Player fakeViewer(LongAdder sent) {
+        UUID id = UUID.randomUUID();
+        Set<String> tags = new HashSet<>();
+        Player.Spigot spigot = new Player.Spigot() {
+            @Override
+            public void sendMessage(BaseComponent... components) {
+                sent.increment();
+            }
+        };
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> id;
+                    case "getName" -> "viewer-" + id;
+                    case "getScoreboardTags" -> tags;
+                    case "addScoreboardTag" -> tags.add((String) args[0]);
+                    case "removeScoreboardTag" -> tags.remove((String) args[0]);
+                    case "isOnline" -> true;
+                    case "spigot" -> spigot;
+                    case "hashCode" -> id.hashCode();
+                    case "equals" -> proxy == args[0];
+                    default -> {
+                        Class<?> type = method.getReturnType();
+                        if (type == boolean.class) yield false;
+                        if (type == int.class) yield 0;
+                        if (type == long.class) yield 0L;
+                        if (type == double.class) yield 0.0;
+                        if (type == float.class) yield 0.0f;
+                        yield null;
+                    }
+                });
+    }
+
+    private static void enqueue(DeliveryQueue queue, ViewerRegistry viewers, LineRenderer renderer, PlatformId platform,
+                                String channel, String sender, String message, long receivedAtNanos) {
+        boolean queued = queue.offer(new PendingMessage(platform, channel, message, false, 0,
+                renderer.renderChat(platform, sender, message), null, receivedAtNanos).matchWith(viewers.getMatcher()));
+        if (!queued) Metrics.platform(platform.getName()).drop();
+    }
+
+    private static Runnable startDirect(LiveEventBus bus, Logger logger, LoadProfile profile, TrafficGenerator generator) {
+        LoadGeneratorPlatform platform = new LoadGeneratorPlatform(bus, logger, profile, generator);
+        platform.start();
+        return platform::stop;
+    }
+
+    private static Runnable startMock(LiveEventBus bus, Logger logger, LoadProfile profile, TrafficGenerator generator) throws Exception {
+        MockLiveServer server = new MockLiveServer(logger, profile, generator);
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        ChzzkMessageHandler chzzk = new ChzzkMessageHandler(bus, LoadGeneratorPlatform.CHANNEL);
+        WebSocket socket = client.newWebSocketBuilder().buildAsync(URI.create(server.getChatServerUrl()), new WebSocket.Listener() {
+            private final StringBuilder partial = new StringBuilder();
+
+            @Override
+            public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                partial.append(data);
+                if (last) {
+                    chzzk.handleFrame(partial.toString(), System.nanoTime());
+                    partial.setLength(0);
+                }
+                webSocket.request(1);
+                return null;
+            }
+        }).join();
+        socket.sendText("{\"ver\":\"2\",\"cmd\":100,\"svcid\":\"game\",\"cid\":\"mock-chat\",\"bdy\":{\"auth\":\"READ\"}}", true).join();
+
+        YouTubeMessageHandler youTube = new YouTubeMessageHandler(bus, LoadGeneratorPlatform.CHANNEL);
+        Thread poller = new Thread(() -> {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(server.getYouTubeApiUrl() + "/liveChat/messages")).build();
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    youTube.handlePage(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+                    Thread.sleep(1000);
+                }
+            } catch (InterruptedException ignored) {
+            } catch (Exception e) {
+                logger.warning("YouTube poll failed: " + e);
+            }
+        }, "LoadTest-YouTube");
+        poller.setDaemon(true);
+        poller.start();
+        return () -> {
+            poller.interrupt();
+            socket.abort();
+            server.stop();
+        };
+    }
+}
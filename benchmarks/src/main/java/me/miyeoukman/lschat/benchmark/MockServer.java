@@ -0,0 +1,84 @@
+package me.miyeoukman.lschat.benchmark;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.SimplePluginManager;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Just enough of a Bukkit server for the ingest path: a real SimplePluginManager
+ * (so callEvent costs what it costs on a server), no players, and every call
+ * made off the "primary thread" like the platform threads are.
+ */
+public final class MockServer {
+    private static final Logger LOGGER = Logger.getLogger("MockServer");
+    private static Plugin plugin;
+
+    private MockServer() {}
+
+    public static synchronized void install() {
+        if (Bukkit.getServer() != null) return;
+
+        SimplePluginManager[] pluginManager = new SimplePluginManager[1];
+        Server server = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[]{Server.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getLogger" -> LOGGER;
+                    case "getPluginManager" -> pluginManager[0];
+                    case "isPrimaryThread" -> false;
+                    case "getOnlinePlayers" -> Collections.emptyList();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> defaultValue(method.getReturnType());
+                });
+        pluginManager[0] = new SimplePluginManager(server, new SimpleCommandMap(server));
+        Bukkit.setServer(server);
+
+        PluginDescriptionFile description = new PluginDescriptionFile("LSChatBench", "1.0", "bench.Main");
+        plugin = (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isEnabled" -> true;
+                    case "getName" -> "LSChatBench";
+                    case "getDescription" -> description;
+                    case "getLogger" -> LOGGER;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == String.class) return "Mock";
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0.0;
+        if (type == float.class) return 0.0f;
+        return null;
+    }
+
+    /** Registers a plain listener for one event type without going through reflection-based scanning. */
+    @SuppressWarnings("unchecked")
+    public static <T extends Event> void listen(HandlerList handlers, Class<T> type, Consumer<T> action) {
+        EventExecutor executor = (listener, event) -> {
+            if (type.isInstance(event)) action.accept((T) event);
+        };
+        handlers.register(new RegisteredListener(new Listener() {}, executor, EventPriority.NORMAL, plugin, false));
+    }
+
+    public static void unregisterAll(HandlerList handlers) {
+        handlers.unregister(plugin);
+    }
+}
@@ -0,0 +1,79 @@
+package me.miyeoukman.lschat.benchmark;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.delivery.DeliveryQueue;
+import me.miyeoukman.lschat.delivery.OverflowPolicy;
+import me.miyeoukman.lschat.delivery.PendingMessage;
+import me.miyeoukman.lschat.render.LineRenderer;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.ChatColor;
+import org.bukkit.Sound;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What Main.onAsyncChat / onAsyncDonation do per line: render once and enqueue.
+ * The legacy* methods are the original String.format / replace / translate chain.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+public class RenderBenchmark {
+    private static final String DONATION_FORMAT = "&6&l[DONATION] &e{streamer} &7- &f{message} &b({amount})";
+
+    private LineRenderer renderer;
+    private DeliveryQueue queue;
+
+    @Setup
+    public void setup() {
+        renderer = new LineRenderer("{color}[{platform}] &f{sender}: {message}", DONATION_FORMAT);
+        queue = new DeliveryQueue(1024, OverflowPolicy.DROP);
+    }
+
+    @Benchmark
+    public BaseComponent[] renderChat() {
+        return renderer.renderChat(PlatformId.CHZZK, "치즈러버", "오늘 방송 재밌네요 ㅋㅋㅋ");
+    }
+
+    @Benchmark
+    public BaseComponent[] renderDonation() {
+        return renderer.renderDonation(PlatformId.CHZZK, "후원왕", "항상 응원합니다", 10000);
+    }
+
+    @Benchmark
+    public PendingMessage renderAndEnqueueChat() {
+        PendingMessage message = new PendingMessage(PlatformId.CHZZK, renderChat(), null, System.nanoTime());
+        queue.offer(message);
+        queue.poll(); // Keep the queue from filling up; the drain is a separate stage
+        return message;
+    }
+
+    @Benchmark
+    public PendingMessage renderAndEnqueueDonation() {
+        PendingMessage message = new PendingMessage(PlatformId.CHZZK, renderDonation(), Sound.ENTITY_PLAYER_LEVELUP, System.nanoTime());
+        queue.offer(message);
+        queue.poll();
+        return message;
+    }
+
+    @Benchmark
+    public String legacyChat() {
+        return ChatColor.translateAlternateColorCodes('&',
+                String.format("%s[%s] &f%s: %s", "&a", "Chzzk", "치즈러버", "오늘 방송 재밌네요 ㅋㅋㅋ"));
+    }
+
+    @Benchmark
+    public String legacyDonation() {
+        String formatted = DONATION_FORMAT
+                .replace("{streamer}", "후원왕")
+                .replace("{message}", "항상 응원합니다")
+                .replace("{amount}", String.valueOf(10000.0));
+        return ChatColor.translateAlternateColorCodes('&', formatted);
+    }
+}
@@ -0,0 +1,40 @@
+package me.miyeoukman.lschat.benchmark;
+
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.platform.youtube.YouTubeMessageHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/** One liveChat/messages page through {@link YouTubeMessageHandler}, events included. */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+public class YouTubePageBenchmark {
+
+    private String page;
+    private YouTubeMessageHandler handler;
+    private final LongAdder delivered = new LongAdder();
+
+    @Setup
+    public void setup() {
+        page = Fixtures.load("youtube-messages-page.json");
+        LiveEventBus bus = new LiveEventBus(Logger.getLogger("bench"));
+        bus.subscribe(AsyncLiveChatEvent.class, event -> delivered.increment());
+        handler = new YouTubeMessageHandler(bus);
+    }
+
+    @Benchmark
+    public long handlePage() {
+        return handler.handlePage(page);
+    }
+}
@@ -1,140 +1,458 @@
 package me.miyeoukman.lschat;
 
+import me.miyeoukman.lschat.alert.AlertSettings;
+import me.miyeoukman.lschat.alert.DonationScheduler;
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.api.Subscription;
 import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
 import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
 import me.miyeoukman.lschat.command.LSChatCommand;
+import me.miyeoukman.lschat.delivery.DeliveryQueue;
+import me.miyeoukman.lschat.delivery.DeliveryTask;
+import me.miyeoukman.lschat.delivery.IngestLimiter;
+import me.miyeoukman.lschat.delivery.OverflowPolicy;
+import me.miyeoukman.lschat.delivery.PendingMessage;
+import me.miyeoukman.lschat.journal.EventJournal;
+import me.miyeoukman.lschat.journal.JournalRecord;
+import me.miyeoukman.lschat.loadtest.LoadGeneratorPlatform;
+import me.miyeoukman.lschat.loadtest.LoadTestRun;
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.metrics.PrometheusExporter;
 import me.miyeoukman.lschat.platform.LivePlatform;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkManager;
 import me.miyeoukman.lschat.platform.chzzk.ChzzkPlatform;
+import me.miyeoukman.lschat.platform.youtube.YouTubeManager;
 import me.miyeoukman.lschat.platform.youtube.YouTubePlatform;
-import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
+import me.miyeoukman.lschat.platform.youtube.YouTubeQuotaBudget;
+import me.miyeoukman.lschat.relay.RelayFollower;
+import me.miyeoukman.lschat.relay.RelayLeader;
+import me.miyeoukman.lschat.render.LineRenderer;
+import me.miyeoukman.lschat.render.Presentation;
+import me.miyeoukman.lschat.util.ConfigSnapshot;
+import me.miyeoukman.lschat.util.ExecutionScope;
+import me.miyeoukman.lschat.util.HttpUtil;
+import me.miyeoukman.lschat.viewer.ViewerListener;
+import me.miyeoukman.lschat.viewer.ViewerPreferences;
+import me.miyeoukman.lschat.viewer.ViewerRegistry;
 import org.bukkit.Sound;
-import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 
-public class Main extends JavaPlugin implements Listener {
+public class Main extends JavaPlugin {
 
     private String viewTag;
-    private boolean donationAlertEnabled;
-    private Sound donationSound;
-    private String donationFormat;
+    private volatile Presentation presentation;
     private final List<LivePlatform> platforms = new ArrayList<>();
+    private ChzzkManager chzzkManager;
+    private YouTubeManager youTubeManager;
+    private RelayLeader relayLeader;
+    private RelayFollower relayFollower;
+    private final PrometheusExporter metricsExporter = new PrometheusExporter(this::renderPluginGauges);
+    private BukkitTask metricsFileTask;
+    private final DeliveryQueue deliveryQueue = new DeliveryQueue(1000, OverflowPolicy.COALESCE);
+    private final ViewerRegistry viewerRegistry = new ViewerRegistry("lschat_viewer");
+    private final DeliveryTask deliveryTask = new DeliveryTask(deliveryQueue, viewerRegistry);
+    private final DonationScheduler donationScheduler = new DonationScheduler(viewerRegistry, () -> presentation);
+    private final IngestLimiter ingestLimiter = new IngestLimiter();
+    private BukkitTask limiterTask;
+    private EventJournal journal;
+    private LoadTestRun loadTest;
+    private ExecutionScope httpScope;
+    private final LiveEventBus eventBus = new LiveEventBus(getLogger());
+    private Subscription bukkitChatBridge;
+    private Subscription bukkitDonationBridge;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
+        // Before loadConfigValues, whose seed() loads the saved filters of everyone already online
+        viewerRegistry.usePreferences(new ViewerPreferences(this, new File(getDataFolder(), "viewers")));
         loadConfigValues();
+        openJournal();
 
-        getServer().getPluginManager().registerEvents(this, this);
+        eventBus.subscribe(AsyncLiveChatEvent.class, this::onAsyncChat);
+        eventBus.subscribe(AsyncLiveDonationEvent.class, this::onAsyncDonation);
+        getServer().getServicesManager().register(LiveEventBus.class, eventBus, this, ServicePriority.Normal);
+
+        getServer().getPluginManager().registerEvents(new ViewerListener(viewerRegistry), this);
         getCommand("lschat").setExecutor(new LSChatCommand(this));
 
+        // One sync task per tick delivers everything queued by the platform threads
+        deliveryTask.runTaskTimer(this, 1L, 1L);
+        donationScheduler.runTaskTimer(this, 1L, 1L);
+        // Folded duplicates and rate-limit notices are emitted off the main thread
+        limiterTask = getServer().getScheduler().runTaskTimerAsynchronously(this,
+                () -> ingestLimiter.flush(System.nanoTime(), this::queueChat), 5L, 5L);
+
         initPlatforms();
+        startMetricsExport();
 
         getLogger().info("LSChat has been enabled!");
     }
     
+    /**
+     * Applies the config file without a blanket restart: formats and sounds are
+     * swapped in place, queued lines are kept, and only platforms whose connection
+     * settings changed are reconnected.
+     */
     public void reload() {
-        // Stop existing platforms
+        ConfigSnapshot before = ConfigSnapshot.of(getConfig());
+        reloadConfig();
+        ConfigSnapshot after = ConfigSnapshot.of(getConfig());
+
+        loadConfigValues();
+        reconcilePlatforms(before, after);
+        if (before.differs(after, "settings.metrics")) startMetricsExport();
+    }
+
+    private void reconcilePlatforms(ConfigSnapshot before, ConfigSnapshot after) {
+        if (before.differs(after, "settings.relay")) {
+            // Switching relay roles changes which platforms exist at all
+            getLogger().info("Relay settings changed, restarting all platforms.");
+            stopPlatforms();
+            initPlatforms();
+            return;
+        }
+        if (relayFollower != null) return;
+
+        if (chzzkManager != null && (!getConfig().getBoolean("platforms.chzzk.enabled")
+                || before.differs(after, "platforms.chzzk", "enabled", "channels", "channel-id", "emoticons"))) {
+            getLogger().info("Chzzk settings changed, reconnecting.");
+            stopPlatform(chzzkManager);
+            chzzkManager = null;
+        }
+        if (chzzkManager == null) {
+            startChzzk();
+        } else {
+            if (before.differs(after, "platforms.chzzk.emoticons")) {
+                chzzkManager.getEmoticons().configure(getConfig().getConfigurationSection("platforms.chzzk.emoticons"));
+            }
+            List<String> channelIds = chzzkChannelIds();
+            for (ChzzkPlatform channel : new ArrayList<>(chzzkManager.getChannels())) {
+                if (!channelIds.contains(channel.getChannelId())) chzzkManager.stopChannel(channel.getChannelId());
+            }
+            for (String channelId : channelIds) {
+                chzzkManager.startChannel(channelId);
+            }
+        }
+
+        if (youTubeManager != null && (!getConfig().getBoolean("platforms.youtube.enabled")
+                || before.differs(after, "platforms.youtube", "enabled", "videos", "video-id"))) {
+            getLogger().info("YouTube settings changed, restarting pollers.");
+            stopPlatform(youTubeManager);
+            youTubeManager = null;
+        }
+        if (youTubeManager == null) {
+            startYouTube();
+        } else {
+            List<String> videoIds = youTubeVideoIds();
+            for (YouTubePlatform video : new ArrayList<>(youTubeManager.getVideos())) {
+                if (!videoIds.contains(video.getVideoId())) youTubeManager.stopVideo(video.getVideoId());
+            }
+            for (String videoId : videoIds) {
+                youTubeManager.startVideo(videoId);
+            }
+        }
+    }
+
+    private void stopPlatform(LivePlatform platform) {
+        platform.stop();
+        platforms.remove(platform);
+    }
+
+    private void stopPlatforms() {
         for (LivePlatform platform : platforms) {
             platform.stop();
         }
         platforms.clear();
-        
-        reloadConfig();
-        loadConfigValues();
-        initPlatforms();
+    }
+
+    private void openJournal() {
+        if (!getConfig().getBoolean("settings.journal.enabled", true)) return;
+        journal = new EventJournal(new File(getDataFolder(), "journal"),
+                getConfig().getLong("settings.journal.segment-size-mb", 16) * 1024 * 1024,
+                getConfig().getLong("settings.journal.retention-days", 30) * 24 * 3600 * 1000,
+                Math.max(10, getConfig().getLong("settings.journal.flush-interval-ms", 200)),
+                getLogger());
+    }
+
+    private void startMetricsExport() {
+        stopMetricsExport();
+        String file = getConfig().getString("settings.metrics.prometheus.file", "");
+        int interval = Math.max(1, getConfig().getInt("settings.metrics.prometheus.file-interval-seconds", 15));
+        int port = getConfig().getInt("settings.metrics.prometheus.http-port", 0);
+
+        if (file != null && !file.isEmpty()) {
+            File target = new File(getDataFolder(), file);
+            metricsFileTask = getServer().getScheduler().runTaskTimerAsynchronously(this, () -> {
+                try {
+                    metricsExporter.writeTo(target);
+                } catch (IOException e) {
+                    getLogger().warning("Failed to write metrics file: " + e.getMessage());
+                }
+            }, interval * 20L, interval * 20L);
+        }
+        if (port > 0) {
+            try {
+                metricsExporter.startHttp(port);
+                getLogger().info("Prometheus metrics available at http://127.0.0.1:" + port + "/metrics");
+            } catch (IOException e) {
+                getLogger().warning("Failed to start metrics endpoint on port " + port + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void stopMetricsExport() {
+        if (metricsFileTask != null) {
+            metricsFileTask.cancel();
+            metricsFileTask = null;
+        }
+        metricsExporter.stop();
+    }
+
+    /** Gauges that only the plugin knows about, appended to the Prometheus output. */
+    private String renderPluginGauges() {
+        String gauges = "# TYPE lschat_queue_size gauge\nlschat_queue_size " + deliveryQueue.size() + "\n"
+                + "# TYPE lschat_viewers gauge\nlschat_viewers " + viewerRegistry.size() + "\n";
+        YouTubeManager youTube = youTubeManager;
+        if (youTube != null) {
+            gauges += "# TYPE lschat_youtube_quota_remaining gauge\nlschat_youtube_quota_remaining "
+                    + youTube.getQuota().getRemaining() + "\n";
+        }
+        return gauges;
     }
 
     private void initPlatforms() {
+        chzzkManager = null;
+        youTubeManager = null;
+        relayLeader = null;
+        relayFollower = null;
+        String relayMode = getConfig().getString("settings.relay.mode", "off");
+        String secret = getConfig().getString("settings.relay.secret", "");
+        if ("follower".equalsIgnoreCase(relayMode)) {
+            // Followers never talk to Chzzk/YouTube; the leader's stream replaces every platform
+            InetSocketAddress leader = parseAddress(getConfig().getString("settings.relay.leader", "127.0.0.1:25590"));
+            relayFollower = new RelayFollower(this, leader, secret);
+            relayFollower.start();
+            platforms.add(relayFollower);
+            getLogger().info("Relay follower initialized. (leader " + leader + ")");
+            return;
+        }
+        if ("leader".equalsIgnoreCase(relayMode)) {
+            if (secret == null || secret.isBlank() || secret.equals("change-me")) {
+                // Anyone who can reach the port would get every chat line
+                getLogger().warning("Relay leader not started: set settings.relay.secret to something other than \"change-me\".");
+            } else {
+                relayLeader = new RelayLeader(this,
+                        parseAddress(getConfig().getString("settings.relay.bind", "127.0.0.1:25590")), secret,
+                        getConfig().getLong("settings.relay.batch-interval-ms", 50));
+                relayLeader.start();
+                platforms.add(relayLeader);
+            }
+        }
+
+        startChzzk();
+        startYouTube();
+    }
+
+    private void startChzzk() {
         if (getConfig().getBoolean("platforms.chzzk.enabled")) {
-            String channelId = getConfig().getString("platforms.chzzk.channel-id");
-            ChzzkPlatform chzzk = new ChzzkPlatform(this, channelId);
-            chzzk.start();
-            platforms.add(chzzk);
-            getLogger().info("Chzzk platform initialized.");
+            List<String> channelIds = chzzkChannelIds();
+            chzzkManager = new ChzzkManager(this, channelIds, getConfig().getConfigurationSection("platforms.chzzk"));
+            chzzkManager.start();
+            platforms.add(chzzkManager);
+            getLogger().info("Chzzk platform initialized. (" + channelIds.size() + " channels)");
         }
+    }
 
-        /* YouTube Disabled for now
+    private void startYouTube() {
         if (getConfig().getBoolean("platforms.youtube.enabled")) {
-            String videoId = getConfig().getString("platforms.youtube.video-id");
+            List<String> videoIds = youTubeVideoIds();
             String apiKey = getConfig().getString("platforms.youtube.api-key");
-            YouTubePlatform youtube = new YouTubePlatform(this, videoId, apiKey);
-            youtube.start();
-            platforms.add(youtube);
-            getLogger().info("YouTube platform initialized.");
+            String apiUrl = getConfig().getString("platforms.youtube.api-url", "https://www.googleapis.com/youtube/v3");
+            YouTubeQuotaBudget quota = new YouTubeQuotaBudget(
+                    getConfig().getLong("platforms.youtube.quota.daily-units", 10000),
+                    getConfig().getDouble("platforms.youtube.quota.expected-stream-hours", 8));
+            youTubeManager = new YouTubeManager(this, videoIds, apiKey, apiUrl, quota);
+            youTubeManager.start();
+            platforms.add(youTubeManager);
+            getLogger().info("YouTube platform initialized. (" + videoIds.size() + " videos)");
+        }
+    }
+
+    private List<String> chzzkChannelIds() {
+        return withLegacyId(getConfig().getStringList("platforms.chzzk.channels"), getConfig().getString("platforms.chzzk.channel-id"));
+    }
+
+    private List<String> youTubeVideoIds() {
+        return withLegacyId(getConfig().getStringList("platforms.youtube.videos"), getConfig().getString("platforms.youtube.video-id"));
+    }
+
+    private static List<String> withLegacyId(List<String> ids, String legacyId) {
+        List<String> result = new ArrayList<>(ids);
+        if (legacyId != null && !legacyId.isEmpty() && !result.contains(legacyId)) {
+            result.add(legacyId);
         }
-        */
+        return result;
+    }
+
+    private static InetSocketAddress parseAddress(String value) {
+        int colon = value.lastIndexOf(':');
+        if (colon < 0) return new InetSocketAddress(value, 25590);
+        return new InetSocketAddress(value.substring(0, colon), Integer.parseInt(value.substring(colon + 1)));
     }
 
     private void loadConfigValues() {
         viewTag = getConfig().getString("settings.view-tag", "lschat_viewer");
-        donationAlertEnabled = getConfig().getBoolean("settings.donations.enable-alert", true);
         String soundName = getConfig().getString("settings.donations.sound", "ENTITY_PLAYER_LEVELUP");
         if (soundName == null) soundName = "ENTITY_PLAYER_LEVELUP";
+        Sound donationSound;
         try {
             donationSound = Sound.valueOf(soundName);
         } catch (IllegalArgumentException | NullPointerException e) {
             donationSound = Sound.ENTITY_PLAYER_LEVELUP;
         }
-        donationFormat = getConfig().getString("settings.donations.format", "&6&l[DONATION] &e{streamer} &7- &f{message} &b({amount})");
-    }
+        String chatFormat = getConfig().getString("settings.chat-format", "{color}[{platform}] &f{sender}: {message}");
+        String donationFormat = getConfig().getString("settings.donations.format", "&6&l[DONATION] &e{streamer} &7- &f{message} &b({amount})");
+        String summaryFormat = getConfig().getString("settings.donations.summary-format", "&6&l[DONATION] &e{count} donations &b({amount})");
+        presentation = new Presentation(new LineRenderer(chatFormat, donationFormat, summaryFormat),
+                getConfig().getBoolean("settings.donations.enable-alert", true), donationSound,
+                AlertSettings.fromConfig(getConfig().getConfigurationSection("settings.donations")));
+
+        deliveryQueue.configure(
+                getConfig().getInt("settings.delivery.queue-capacity", 1000),
+                OverflowPolicy.fromConfig(getConfig().getString("settings.delivery.overflow", "coalesce")));
+        deliveryTask.configure(
+                getConfig().getInt("settings.delivery.max-messages-per-tick", 50),
+                getConfig().getLong("settings.delivery.max-micros-per-tick", 2000L));
+        ingestLimiter.configure(
+                getConfig().getBoolean("settings.limiter.enabled", true),
+                getConfig().getDouble("settings.limiter.platform.rate-per-second", 20),
+                getConfig().getDouble("settings.limiter.platform.burst", 40),
+                getConfig().getDouble("settings.limiter.sender.rate-per-second", 1),
+                getConfig().getDouble("settings.limiter.sender.burst", 3),
+                getConfig().getLong("settings.limiter.duplicate-window-ms", 3000L),
+                getConfig().getInt("settings.limiter.max-tracked-senders", 10000),
+                OverflowPolicy.fromConfig(getConfig().getString("settings.limiter.overflow", "coalesce")));
 
-    @EventHandler
-    public void onAsyncChat(AsyncLiveChatEvent event) {
-        String platformColor = "&8"; // Default Dark Gray
-        if (event.getPlatform().equalsIgnoreCase("Chzzk")) {
-            platformColor = "&a"; // Green
-        } else if (event.getPlatform().equalsIgnoreCase("YouTube")) {
-            platformColor = "&c"; // Red
+        ExecutionScope.configure(ExecutionScope.Mode.fromConfig(getConfig().getString("settings.threads.mode", "auto")));
+        if (httpScope == null) {
+            // Lookups and polls; kept for the plugin's lifetime, so a mode change applies after a restart
+            int poolSize = Math.max(2, getConfig().getInt("settings.threads.pool-size", 8));
+            httpScope = ExecutionScope.open("LSChat-HTTP", poolSize);
+            HttpUtil.useExecutor(httpScope.io(), httpScope.isVirtual() ? 64 : poolSize);
         }
+        HttpUtil.configure(new File(getDataFolder(), "cache/http"),
+                getConfig().getLong("settings.http.cache-size-mb", 10L) * 1024L * 1024L,
+                getConfig().getLong("settings.http.connect-timeout-ms", 5000L),
+                getConfig().getLong("settings.http.read-timeout-ms", 10000L),
+                getConfig().getInt("settings.http.max-requests-per-host", 4));
+
+        viewerRegistry.seed(viewTag);
+        setBukkitBridge(getConfig().getBoolean("settings.api.bukkit-events", false));
+    }
 
-        String message = ChatColor.translateAlternateColorCodes('&', 
-            String.format("%s[%s] &f%s: %s", platformColor, event.getPlatform(), event.getSender(), event.getMessage()));
-        
-        // Broadcast on main thread to be safe
-        Bukkit.getScheduler().runTask(this, () -> broadcastToTaggedPlayers(message));
+    /** Re-fires bus events as Bukkit events for plugins that still listen through the plugin manager. */
+    private void setBukkitBridge(boolean enabled) {
+        if (enabled && bukkitChatBridge == null) {
+            bukkitChatBridge = eventBus.subscribe(AsyncLiveChatEvent.class, getServer().getPluginManager()::callEvent);
+            bukkitDonationBridge = eventBus.subscribe(AsyncLiveDonationEvent.class, getServer().getPluginManager()::callEvent);
+        } else if (!enabled && bukkitChatBridge != null) {
+            bukkitChatBridge.unsubscribe();
+            bukkitDonationBridge.unsubscribe();
+            bukkitChatBridge = null;
+            bukkitDonationBridge = null;
+        }
     }
 
-    @EventHandler
-    public void onAsyncDonation(AsyncLiveDonationEvent event) {
-        if (!donationAlertEnabled) return;
+    private void onAsyncChat(AsyncLiveChatEvent event) {
+        if (journal != null && !LoadGeneratorPlatform.isGenerated(event)) journal.append(JournalRecord.chat(event.getPlatform(), event.getChannel(), event.getSender(), event.getMessage()));
 
-        String formatted = donationFormat
-                .replace("{streamer}", event.getSender())
-                .replace("{message}", event.getMessage())
-                .replace("{amount}", String.valueOf(event.getAmount()));
-        
-        String message = ChatColor.translateAlternateColorCodes('&', formatted);
+        IngestLimiter.Admission admission = ingestLimiter.admit(event.getPlatformId(), event.getChannel(), event.getSender(),
+                event.getMessage(), System.nanoTime());
+        if (admission != IngestLimiter.Admission.ACCEPT) {
+            // Folded repeats are delivered later as one "xN" line, so they are not drops
+            if (admission == IngestLimiter.Admission.LIMITED) Metrics.platform(event.getPlatform()).drop();
+            return;
+        }
+        queueChat(event.getPlatformId(), event.getChannel(), event.getSender(), event.getMessage(), event.getReceivedAtNanos());
+    }
 
-        // Broadcast on main thread
-        Bukkit.getScheduler().runTask(this, () -> {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (player.getScoreboardTags().contains(viewTag)) {
-                    player.sendMessage(message);
-                    player.playSound(player.getLocation(), donationSound, 1.0f, 1.0f);
-                }
-            }
-        });
+    private void queueChat(PlatformId platform, String channel, String sender, String message) {
+        queueChat(platform, channel, sender, message, System.nanoTime());
     }
 
-    private void broadcastToTaggedPlayers(String message) {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.getScoreboardTags().contains(viewTag)) {
-                player.sendMessage(message);
-            }
+    private void queueChat(PlatformId platform, String channel, String sender, String message, long receivedAtNanos) {
+        // Rendered and matched against viewer filters once here, off the main thread; delivered by the delivery task
+        boolean queued = deliveryQueue.offer(new PendingMessage(platform, channel, message, false, 0,
+                presentation.getRenderer().renderChat(platform, sender, message), null, receivedAtNanos)
+                .matchWith(viewerRegistry.getMatcher()));
+        if (!queued) Metrics.platform(platform.getName()).drop();
+    }
+
+    private void onAsyncDonation(AsyncLiveDonationEvent event) {
+        // Generated donations exercise decoding only; real players never see them as alerts
+        if (LoadGeneratorPlatform.isGenerated(event)) return;
+        if (journal != null) {
+            journal.append(JournalRecord.donation(event.getPlatform(), event.getChannel(), event.getSender(), event.getMessage(), event.getAmount()));
         }
+        if (!presentation.isDonationAlertEnabled()) return;
+
+        // Paced, merged and presented by the scheduler's tick; never dropped
+        donationScheduler.offer(event.getPlatformId(), event.getChannel(), event.getSender(), event.getMessage(), event.getAmount());
     }
 
+    public LiveEventBus getEventBus() { return eventBus; }
+
+    public ViewerRegistry getViewerRegistry() { return viewerRegistry; }
+
+    public DeliveryQueue getDeliveryQueue() { return deliveryQueue; }
+
+    public LineRenderer getRenderer() { return presentation.getRenderer(); }
+
+    /** Null when the journal is disabled. */
+    public EventJournal getJournal() { return journal; }
+
+    /** Null when Chzzk is disabled. */
+    public ChzzkManager getChzzkManager() { return chzzkManager; }
+
+    /** Null when YouTube is disabled. */
+    public YouTubeManager getYouTubeManager() { return youTubeManager; }
+
+    /** Null unless settings.relay.mode is leader. */
+    public RelayLeader getRelayLeader() { return relayLeader; }
+
+    /** Null unless settings.relay.mode is follower. */
+    public RelayFollower getRelayFollower() { return relayFollower; }
+
+    /** The last load test started with /lschat loadtest, null if none. */
+    public LoadTestRun getLoadTest() { return loadTest; }
+
+    public void setLoadTest(LoadTestRun loadTest) { this.loadTest = loadTest; }
+
     @Override
     public void onDisable() {
+        if (loadTest != null) loadTest.stop();
         for (LivePlatform platform : platforms) {
             platform.stop();
         }
+        deliveryTask.cancel();
+        donationScheduler.cancel();
+        donationScheduler.clearBossBars();
+        if (limiterTask != null) limiterTask.cancel();
+        if (journal != null) journal.close();
+        stopMetricsExport();
+        HttpUtil.shutdown();
+        if (httpScope != null) httpScope.close(2000);
+        getServer().getServicesManager().unregisterAll(this);
         getLogger().info("LSChat has been disabled!");
     }
 }
\ No newline at end of file
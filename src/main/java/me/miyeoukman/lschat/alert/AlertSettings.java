@@ -0,0 +1,72 @@
+package me.miyeoukman.lschat.alert;
+
+import me.miyeoukman.lschat.render.MessageTemplate;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pacing, merging and tier settings for donation alerts. Immutable and swapped
+ * as part of the plugin's presentation on reload.
+ */
+public final class AlertSettings {
+    private final long spacingMillis;
+    private final double mergeBelow;
+    private final long mergeWindowMillis;
+    private final int maxPending;
+    private final List<AlertTier> tiers;
+    private final MessageTemplate titleTemplate;
+    private final MessageTemplate subtitleTemplate;
+    private final MessageTemplate bossBarTemplate;
+
+    public AlertSettings(long spacingMillis, double mergeBelow, long mergeWindowMillis, int maxPending, List<AlertTier> tiers,
+                         String titleFormat, String subtitleFormat, String bossBarFormat) {
+        this.spacingMillis = Math.max(0, spacingMillis);
+        this.mergeBelow = Math.max(0, mergeBelow);
+        this.mergeWindowMillis = Math.max(0, mergeWindowMillis);
+        this.maxPending = Math.max(1, maxPending);
+        this.tiers = Collections.unmodifiableList(tiers);
+        this.titleTemplate = compile(titleFormat);
+        this.subtitleTemplate = compile(subtitleFormat);
+        this.bossBarTemplate = compile(bossBarFormat);
+    }
+
+    /** Reads settings.donations; a missing section gives the defaults. */
+    public static AlertSettings fromConfig(ConfigurationSection donations) {
+        if (donations == null) {
+            return new AlertSettings(1500L, 1000, 5000L, 100, Collections.emptyList(),
+                    "&6{amount}", "&e{streamer}&7: &f{message}", "&6{streamer} &7- &f{message} &b({amount})");
+        }
+        return new AlertSettings(
+                donations.getLong("spacing-ms", 1500L),
+                donations.getDouble("merge-below", 1000),
+                donations.getLong("merge-window-ms", 5000L),
+                donations.getInt("max-pending", 100),
+                AlertTier.fromConfig(donations.getMapList("tiers")),
+                donations.getString("title-format", "&6{amount}"),
+                donations.getString("subtitle-format", "&e{streamer}&7: &f{message}"),
+                donations.getString("boss-bar-format", "&6{streamer} &7- &f{message} &b({amount})"));
+    }
+
+    private static MessageTemplate compile(String format) {
+        return MessageTemplate.compile(format, "streamer", "message", "amount", "platform");
+    }
+
+    public long getSpacingMillis() { return spacingMillis; }
+    public double getMergeBelow() { return mergeBelow; }
+    public long getMergeWindowMillis() { return mergeWindowMillis; }
+    public int getMaxPending() { return maxPending; }
+
+    /** The richest tier the amount reaches, or null. */
+    public AlertTier tierFor(double amount) {
+        for (AlertTier tier : tiers) {
+            if (amount >= tier.getMinAmount()) return tier;
+        }
+        return null;
+    }
+
+    MessageTemplate getTitleTemplate() { return titleTemplate; }
+    MessageTemplate getSubtitleTemplate() { return subtitleTemplate; }
+    MessageTemplate getBossBarTemplate() { return bossBarTemplate; }
+}
@@ -0,0 +1,51 @@
+package me.miyeoukman.lschat.alert;
+
+import org.bukkit.Sound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extra presentation for donations of at least {@code minAmount}: its own
+ * sound, a title, and/or a boss bar shown for a few seconds.
+ */
+public final class AlertTier {
+    private final double minAmount;
+    private final Sound sound; // null keeps the default donation sound
+    private final boolean title;
+    private final int bossBarSeconds;
+
+    public AlertTier(double minAmount, Sound sound, boolean title, int bossBarSeconds) {
+        this.minAmount = minAmount;
+        this.sound = sound;
+        this.title = title;
+        this.bossBarSeconds = Math.max(0, bossBarSeconds);
+    }
+
+    public double getMinAmount() { return minAmount; }
+    public Sound getSound() { return sound; }
+    public boolean hasTitle() { return title; }
+    public int getBossBarSeconds() { return bossBarSeconds; }
+
+    /** Parses settings.donations.tiers; entries without a min-amount are skipped. */
+    static List<AlertTier> fromConfig(List<Map<?, ?>> entries) {
+        List<AlertTier> tiers = new ArrayList<>();
+        for (Map<?, ?> entry : entries) {
+            if (!(entry.get("min-amount") instanceof Number)) continue;
+            Sound sound = null;
+            if (entry.get("sound") != null) {
+                try {
+                    sound = Sound.valueOf(String.valueOf(entry.get("sound")));
+                } catch (IllegalArgumentException ignored) {
+                    // Falls back to the default sound
+                }
+            }
+            Object seconds = entry.get("boss-bar-seconds");
+            tiers.add(new AlertTier(((Number) entry.get("min-amount")).doubleValue(), sound,
+                    Boolean.TRUE.equals(entry.get("title")), seconds instanceof Number ? ((Number) seconds).intValue() : 0));
+        }
+        tiers.sort((a, b) -> Double.compare(b.minAmount, a.minAmount)); // Highest first
+        return tiers;
+    }
+}
@@ -0,0 +1,38 @@
+package me.miyeoukman.lschat.alert;
+
+import me.miyeoukman.lschat.api.PlatformId;
+
+/**
+ * A donation waiting for its alert slot, or a summary of several small ones
+ * ({@code count > 1}). Ordered by amount, highest first, then by arrival.
+ */
+final class DonationAlert implements Comparable<DonationAlert> {
+    final PlatformId platform;
+    final String channel;
+    final String sender;
+    final String message;
+    final double amount; // Total for a summary
+    final double largest; // Biggest single donation, what viewers' minimum-donation filters compare against
+    final int count;
+    long seq; // Arrival order, assigned by the scheduler thread
+
+    DonationAlert(PlatformId platform, String channel, String sender, String message, double amount) {
+        this(platform, channel, sender, message, amount, amount, 1);
+    }
+
+    DonationAlert(PlatformId platform, String channel, String sender, String message, double amount, double largest, int count) {
+        this.platform = platform;
+        this.channel = channel;
+        this.sender = sender;
+        this.message = message;
+        this.amount = amount;
+        this.largest = largest;
+        this.count = count;
+    }
+
+    @Override
+    public int compareTo(DonationAlert other) {
+        int byAmount = Double.compare(other.amount, amount);
+        return byAmount != 0 ? byAmount : Long.compare(seq, other.seq);
+    }
+}
@@ -0,0 +1,200 @@
+package me.miyeoukman.lschat.alert;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.render.Presentation;
+import me.miyeoukman.lschat.viewer.RecipientMatcher;
+import me.miyeoukman.lschat.viewer.Viewer;
+import me.miyeoukman.lschat.viewer.ViewerRegistry;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Paces donation alerts. Platform threads only append to a lock-free inbox;
+ * one sync task per tick sorts arrivals into a queue ordered by amount, folds
+ * small donations into per-channel summaries, and presents at most one alert
+ * per spacing interval, with titles and boss bars for the configured tiers.
+ */
+public class DonationScheduler extends BukkitRunnable {
+    private static final int MAX_DRAIN_PER_TICK = 256;
+
+    private final ViewerRegistry viewerRegistry;
+    private final Supplier<Presentation> presentation;
+    private final ConcurrentLinkedQueue<DonationAlert> inbox = new ConcurrentLinkedQueue<>();
+
+    // Main thread only
+    private final TreeSet<DonationAlert> pending = new TreeSet<>();
+    private final Map<String, Bucket> buckets = new LinkedHashMap<>(); // By platform and channel
+    private final List<ActiveBar> bossBars = new ArrayList<>();
+    private long nextSeq;
+    private long nextAlertAt;
+
+    public DonationScheduler(ViewerRegistry viewerRegistry, Supplier<Presentation> presentation) {
+        this.viewerRegistry = viewerRegistry;
+        this.presentation = presentation;
+    }
+
+    /** Queues a donation from any thread. */
+    public void offer(PlatformId platform, String channel, String sender, String message, double amount) {
+        inbox.offer(new DonationAlert(platform, channel, sender, message, amount));
+    }
+
+    /** Alerts waiting for their slot, not counting the inbox or open summaries. */
+    public int getPendingCount() { return pending.size(); }
+
+    @Override
+    public void run() {
+        long now = System.currentTimeMillis();
+        tickBossBars(now);
+        if (inbox.isEmpty() && pending.isEmpty() && buckets.isEmpty()) return;
+
+        Presentation current = presentation.get();
+        AlertSettings settings = current.getAlerts();
+
+        DonationAlert alert;
+        for (int drained = 0; drained < MAX_DRAIN_PER_TICK && (alert = inbox.poll()) != null; drained++) {
+            alert.seq = nextSeq++;
+            if (alert.amount < settings.getMergeBelow()) {
+                merge(alert, now);
+            } else {
+                pending.add(alert);
+            }
+        }
+        // Too far behind: the smallest waiting alerts become part of a summary instead
+        while (pending.size() > settings.getMaxPending()) {
+            merge(pending.pollLast(), now);
+        }
+
+        for (Iterator<Bucket> it = buckets.values().iterator(); it.hasNext(); ) {
+            Bucket bucket = it.next();
+            if (now - bucket.openedAt < settings.getMergeWindowMillis()) continue;
+            it.remove();
+            DonationAlert summary = bucket.toAlert();
+            summary.seq = nextSeq++;
+            pending.add(summary);
+        }
+
+        if (now >= nextAlertAt && !pending.isEmpty()) {
+            present(pending.pollFirst(), current, settings, now);
+            nextAlertAt = now + settings.getSpacingMillis();
+        }
+    }
+
+    // Summaries never span channels, so viewers' channel filters still apply to them
+    private void merge(DonationAlert alert, long now) {
+        String key = alert.platform.getIndex() + "\0" + alert.channel;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) buckets.put(key, new Bucket(alert, now));
+        else bucket.add(alert);
+    }
+
+    private void present(DonationAlert alert, Presentation presentation, AlertSettings settings, long now) {
+        RecipientMatcher matcher = viewerRegistry.getMatcher();
+        long[] recipients = matcher.match(alert.platform, alert.channel, alert.message, true, alert.largest);
+        Viewer[] viewers = matcher.getViewers();
+
+        AlertTier tier = alert.count == 1 ? settings.tierFor(alert.amount) : null;
+        Sound sound = tier != null && tier.getSound() != null ? tier.getSound() : presentation.getDonationSound();
+        BaseComponent[] line = alert.count == 1
+                ? presentation.getRenderer().renderDonation(alert.platform, alert.sender, alert.message, alert.amount)
+                : presentation.getRenderer().renderDonationSummary(alert.platform, alert.count, alert.amount);
+        String amount = String.valueOf(alert.amount);
+        String title = null;
+        String subtitle = null;
+        if (tier != null && tier.hasTitle()) {
+            title = settings.getTitleTemplate().render(alert.sender, alert.message, amount, alert.platform.getName());
+            subtitle = settings.getSubtitleTemplate().render(alert.sender, alert.message, amount, alert.platform.getName());
+        }
+        BossBar bar = null;
+        if (tier != null && tier.getBossBarSeconds() > 0) {
+            bar = Bukkit.createBossBar(settings.getBossBarTemplate().render(alert.sender, alert.message, amount, alert.platform.getName()),
+                    BarColor.YELLOW, BarStyle.SOLID);
+            bossBars.add(new ActiveBar(bar, now, now + tier.getBossBarSeconds() * 1000L));
+        }
+
+        for (int w = 0; w < recipients.length; w++) {
+            long word = recipients[w];
+            while (word != 0) {
+                Player player = viewers[(w << 6) + Long.numberOfTrailingZeros(word)].getPlayer();
+                word &= word - 1;
+                player.spigot().sendMessage(line);
+                if (sound != null) player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
+                if (title != null) player.sendTitle(title, subtitle, 10, 60, 20);
+                if (bar != null) bar.addPlayer(player);
+            }
+        }
+    }
+
+    private void tickBossBars(long now) {
+        for (Iterator<ActiveBar> it = bossBars.iterator(); it.hasNext(); ) {
+            ActiveBar active = it.next();
+            if (now >= active.expiresAt) {
+                active.bar.removeAll();
+                it.remove();
+            } else {
+                active.bar.setProgress((double) (active.expiresAt - now) / (active.expiresAt - active.shownAt));
+            }
+        }
+    }
+
+    /** Removes any boss bars still on screen; call when the task is cancelled. */
+    public void clearBossBars() {
+        for (ActiveBar active : bossBars) {
+            active.bar.removeAll();
+        }
+        bossBars.clear();
+    }
+
+    private static final class Bucket {
+        final long openedAt;
+        final DonationAlert first;
+        int count;
+        double total;
+        double largest;
+
+        Bucket(DonationAlert first, long now) {
+            this.openedAt = now;
+            this.first = first;
+            this.count = first.count;
+            this.total = first.amount;
+            this.largest = first.largest;
+        }
+
+        void add(DonationAlert alert) {
+            count += alert.count;
+            total += alert.amount;
+            largest = Math.max(largest, alert.largest);
+        }
+
+        DonationAlert toAlert() {
+            if (count == 1) return first; // Nothing merged after all; show it as itself
+            return new DonationAlert(first.platform, first.channel, "", null, total, largest, count);
+        }
+    }
+
+    private static final class ActiveBar {
+        final BossBar bar;
+        final long shownAt;
+        final long expiresAt;
+
+        ActiveBar(BossBar bar, long shownAt, long expiresAt) {
+            this.bar = bar;
+            this.shownAt = shownAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
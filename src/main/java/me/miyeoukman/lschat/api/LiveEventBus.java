@@ -0,0 +1,132 @@
+package me.miyeoukman.lschat.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LSChat's own dispatch for live events, so chat bursts don't contend on
+ * Bukkit's synchronized callEvent. Listeners live in copy-on-write arrays:
+ * publishing is a volatile read and a loop, subscribing is a CAS.
+ * <p>
+ * Listeners run on the platform thread that received the event (never the
+ * main thread) and must not block. Get the bus from the Bukkit services
+ * manager:
+ * <pre>
+ * LiveEventBus bus = Bukkit.getServicesManager().load(LiveEventBus.class);
+ * bus.subscribe(AsyncLiveChatEvent.class, chat -&gt; ...);
+ * bus.subscribe(AsyncLiveDonationEvent.class, donation -&gt; ...);
+ * </pre>
+ * Batch listeners get every event a platform decoded from one frame or page in
+ * a single call. The list is only valid during the call; copy it to keep it.
+ */
+public final class LiveEventBus {
+    private static final Consumer<?>[] NONE = new Consumer<?>[0];
+
+    private static final class Channel {
+        final AtomicReference<Consumer<?>[]> perEvent = new AtomicReference<>(NONE);
+        final AtomicReference<Consumer<?>[]> batch = new AtomicReference<>(NONE);
+    }
+
+    private final Map<Class<?>, Channel> channels = new ConcurrentHashMap<>();
+    private final Logger logger;
+
+    public LiveEventBus(Logger logger) {
+        this.logger = logger;
+    }
+
+    public <T> Subscription subscribe(Class<T> type, Consumer<? super T> listener) {
+        return add(channel(type).perEvent, listener);
+    }
+
+    public <T> Subscription subscribeBatch(Class<T> type, Consumer<? super List<T>> listener) {
+        return add(channel(type).batch, listener);
+    }
+
+    public boolean hasListeners(Class<?> type) {
+        Channel channel = channels.get(type);
+        return channel != null && (channel.perEvent.get().length > 0 || channel.batch.get().length > 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> void publish(Class<T> type, T event) {
+        Channel channel = channels.get(type);
+        if (channel == null) return;
+        for (Consumer<?> listener : channel.perEvent.get()) {
+            invoke((Consumer<T>) listener, event);
+        }
+        Consumer<?>[] batch = channel.batch.get();
+        if (batch.length > 0) {
+            List<T> single = Collections.singletonList(event);
+            for (Consumer<?> listener : batch) {
+                invoke((Consumer<List<T>>) listener, single);
+            }
+        }
+    }
+
+    /** Publishes a batch: per-event listeners see each event, batch listeners the whole list once. */
+    @SuppressWarnings("unchecked")
+    public <T> void publishAll(Class<T> type, List<T> events) {
+        if (events.isEmpty()) return;
+        Channel channel = channels.get(type);
+        if (channel == null) return;
+        Consumer<?>[] perEvent = channel.perEvent.get();
+        for (int i = 0; i < events.size(); i++) {
+            T event = events.get(i);
+            for (Consumer<?> listener : perEvent) {
+                invoke((Consumer<T>) listener, event);
+            }
+        }
+        for (Consumer<?> listener : channel.batch.get()) {
+            invoke((Consumer<List<T>>) listener, events);
+        }
+    }
+
+    private <T> void invoke(Consumer<T> listener, T value) {
+        try {
+            listener.accept(value);
+        } catch (Throwable t) {
+            logger.log(Level.WARNING, "LSChat event listener " + listener.getClass().getName() + " threw", t);
+        }
+    }
+
+    private Channel channel(Class<?> type) {
+        return channels.computeIfAbsent(type, k -> new Channel());
+    }
+
+    private static Subscription add(AtomicReference<Consumer<?>[]> ref, Consumer<?> listener) {
+        Consumer<?>[] current;
+        Consumer<?>[] next;
+        do {
+            current = ref.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = listener;
+        } while (!ref.compareAndSet(current, next));
+        return () -> remove(ref, listener);
+    }
+
+    private static void remove(AtomicReference<Consumer<?>[]> ref, Consumer<?> listener) {
+        Consumer<?>[] current;
+        Consumer<?>[] next;
+        do {
+            current = ref.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == listener) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) return;
+            next = new Consumer<?>[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+        } while (!ref.compareAndSet(current, next));
+    }
+}
@@ -0,0 +1,64 @@
+package me.miyeoukman.lschat.api;
+
+import org.bukkit.ChatColor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interned platform identifier. There is exactly one instance per platform
+ * name (case-insensitive), so platforms compare with == and can index arrays.
+ */
+public final class PlatformId {
+    private static final Map<String, PlatformId> REGISTRY = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    public static final PlatformId CHZZK = register("Chzzk", "&a");     // Green
+    public static final PlatformId YOUTUBE = register("YouTube", "&c"); // Red
+
+    private final String name;
+    private final String color;
+    private final int index;
+
+    private PlatformId(String name, String color, int index) {
+        this.name = name;
+        this.color = ChatColor.translateAlternateColorCodes('&', color);
+        this.index = index;
+    }
+
+    private static PlatformId register(String name, String color) {
+        return REGISTRY.computeIfAbsent(name.toLowerCase(Locale.ROOT),
+                key -> new PlatformId(name, color, NEXT_INDEX.getAndIncrement()));
+    }
+
+    /** The platform with this name, registering it (dark gray) on first use. */
+    public static PlatformId of(String name) {
+        PlatformId id = REGISTRY.get(name.toLowerCase(Locale.ROOT));
+        return id != null ? id : register(name, "&8");
+    }
+
+    /** The platform with this name, or null if nothing ever used it. */
+    public static PlatformId find(String name) {
+        return REGISTRY.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /** Every platform registered so far. */
+    public static Collection<PlatformId> values() {
+        return Collections.unmodifiableCollection(REGISTRY.values());
+    }
+
+    public String getName() { return name; }
+
+    /** Section-sign color code used for this platform's tag in chat. */
+    public String getColor() { return color; }
+
+    /** Small dense number, stable for the lifetime of the server. */
+    public int getIndex() { return index; }
+
+    @Override
+    public String toString() { return name; }
+}
@@ -0,0 +1,9 @@
+package me.miyeoukman.lschat.api;
+
+/** Handle returned by {@link LiveEventBus} subscriptions. */
+public interface Subscription extends AutoCloseable {
+    void unsubscribe();
+
+    @Override
+    default void close() { unsubscribe(); }
+}
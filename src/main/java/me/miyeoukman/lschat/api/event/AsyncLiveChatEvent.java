@@ -1,25 +1,27 @@
 package me.miyeoukman.lschat.api.event;
 
-import org.bukkit.event.Event;
+import me.miyeoukman.lschat.api.PlatformId;
 import org.bukkit.event.HandlerList;
 import org.jetbrains.annotations.NotNull;
 
-public class AsyncLiveChatEvent extends Event {
+public class AsyncLiveChatEvent extends AsyncLiveMessageEvent {
     private static final HandlerList HANDLERS = new HandlerList();
-    private final String platform;
-    private final String sender;
-    private final String message;
 
     public AsyncLiveChatEvent(String platform, String sender, String message) {
-        super(true); // Async
-        this.platform = platform;
-        this.sender = sender;
-        this.message = message;
+        this(platform, sender, message, System.nanoTime());
     }
 
-    public String getPlatform() { return platform; }
-    public String getSender() { return sender; }
-    public String getMessage() { return message; }
+    public AsyncLiveChatEvent(String platform, String sender, String message, long receivedAtNanos) {
+        this(PlatformId.of(platform), RawLiveMessage.of(sender, message), receivedAtNanos);
+    }
+
+    public AsyncLiveChatEvent(PlatformId platform, RawLiveMessage raw, long receivedAtNanos) {
+        this(platform, "", raw, receivedAtNanos);
+    }
+
+    public AsyncLiveChatEvent(PlatformId platform, String channel, RawLiveMessage raw, long receivedAtNanos) {
+        super(platform, channel, raw, receivedAtNanos);
+    }
 
     @NotNull
     @Override
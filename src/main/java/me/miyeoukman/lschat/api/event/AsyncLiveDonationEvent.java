@@ -1,27 +1,30 @@
 package me.miyeoukman.lschat.api.event;
 
-import org.bukkit.event.Event;
+import me.miyeoukman.lschat.api.PlatformId;
 import org.bukkit.event.HandlerList;
 import org.jetbrains.annotations.NotNull;
 
-public class AsyncLiveDonationEvent extends Event {
+public class AsyncLiveDonationEvent extends AsyncLiveMessageEvent {
     private static final HandlerList HANDLERS = new HandlerList();
-    private final String platform;
-    private final String sender;
-    private final String message;
     private final double amount;
 
     public AsyncLiveDonationEvent(String platform, String sender, String message, double amount) {
-        super(true); // Async
-        this.platform = platform;
-        this.sender = sender;
-        this.message = message;
+        this(platform, sender, message, amount, System.nanoTime());
+    }
+
+    public AsyncLiveDonationEvent(String platform, String sender, String message, double amount, long receivedAtNanos) {
+        this(PlatformId.of(platform), RawLiveMessage.of(sender, message), amount, receivedAtNanos);
+    }
+
+    public AsyncLiveDonationEvent(PlatformId platform, RawLiveMessage raw, double amount, long receivedAtNanos) {
+        this(platform, "", raw, amount, receivedAtNanos);
+    }
+
+    public AsyncLiveDonationEvent(PlatformId platform, String channel, RawLiveMessage raw, double amount, long receivedAtNanos) {
+        super(platform, channel, raw, receivedAtNanos);
         this.amount = amount;
     }
 
-    public String getPlatform() { return platform; }
-    public String getSender() { return sender; }
-    public String getMessage() { return message; }
     public double getAmount() { return amount; }
 
     @NotNull
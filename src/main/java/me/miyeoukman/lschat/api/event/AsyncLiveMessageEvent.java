@@ -0,0 +1,55 @@
+package me.miyeoukman.lschat.api.event;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import org.bukkit.event.Event;
+
+/**
+ * Common base of chat and donation events. Sender, message and metadata are
+ * decoded from the raw platform data on first access and then cached.
+ */
+public abstract class AsyncLiveMessageEvent extends Event {
+    private final PlatformId platform;
+    private final String channel;
+    private final RawLiveMessage raw;
+    private final long receivedAtNanos;
+    // Racy single-check caching: decoding is idempotent and the values are immutable
+    private String sender;
+    private String message;
+    private LiveMessageMetadata metadata;
+
+    protected AsyncLiveMessageEvent(PlatformId platform, String channel, RawLiveMessage raw, long receivedAtNanos) {
+        super(true); // Async
+        this.platform = platform;
+        this.channel = channel == null ? "" : channel;
+        this.raw = raw;
+        this.receivedAtNanos = receivedAtNanos;
+    }
+
+    public PlatformId getPlatformId() { return platform; }
+
+    public String getPlatform() { return platform.getName(); }
+
+    /** Chzzk channel ID or YouTube video ID the message came from; empty if unknown. */
+    public String getChannel() { return channel; }
+
+    public String getSender() {
+        String value = sender;
+        if (value == null) sender = value = raw.decodeSender();
+        return value;
+    }
+
+    public String getMessage() {
+        String value = message;
+        if (value == null) message = value = raw.decodeMessage();
+        return value;
+    }
+
+    public LiveMessageMetadata getMetadata() {
+        LiveMessageMetadata value = metadata;
+        if (value == null) metadata = value = raw.decodeMetadata();
+        return value;
+    }
+
+    /** System.nanoTime() when the platform received the message. */
+    public long getReceivedAtNanos() { return receivedAtNanos; }
+}
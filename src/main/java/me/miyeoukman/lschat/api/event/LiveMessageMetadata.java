@@ -0,0 +1,47 @@
+package me.miyeoukman.lschat.api.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Details about a chat line or donation beyond sender and text. Fields a
+ * platform doesn't provide are empty, 0 or null.
+ */
+public final class LiveMessageMetadata {
+    public static final LiveMessageMetadata EMPTY =
+            new LiveMessageMetadata(null, null, Collections.emptyList(), 0, 0, Collections.emptyMap(), 0);
+
+    private final String userId;
+    private final String role;
+    private final List<String> badges;
+    private final int subscriptionMonths;
+    private final int subscriptionTier;
+    private final Map<String, String> emojis;
+    private final long timestampMillis;
+
+    public LiveMessageMetadata(String userId, String role, List<String> badges, int subscriptionMonths,
+                               int subscriptionTier, Map<String, String> emojis, long timestampMillis) {
+        this.userId = userId;
+        this.role = role;
+        this.badges = badges;
+        this.subscriptionMonths = subscriptionMonths;
+        this.subscriptionTier = subscriptionTier;
+        this.emojis = emojis;
+        this.timestampMillis = timestampMillis;
+    }
+
+    /** Platform user id (Chzzk userIdHash, YouTube channel id). */
+    public String getUserId() { return userId; }
+    /** Platform role, e.g. "streamer", "manager", "common_user" on Chzzk or "owner", "moderator" on YouTube. */
+    public String getRole() { return role; }
+    /** Badge ids (Chzzk) or badge names (YouTube: "member", "verified"). */
+    public List<String> getBadges() { return badges; }
+    /** Months subscribed, 0 if not a subscriber or member. */
+    public int getSubscriptionMonths() { return subscriptionMonths; }
+    public int getSubscriptionTier() { return subscriptionTier; }
+    /** Emoji code to image URL, for codes used in the message. */
+    public Map<String, String> getEmojis() { return emojis; }
+    /** When the platform says the message was sent, epoch millis, or 0 if unknown. */
+    public long getTimestampMillis() { return timestampMillis; }
+}
@@ -0,0 +1,27 @@
+package me.miyeoukman.lschat.api.event;
+
+/**
+ * The undecoded platform data behind an event. Events call each method at most
+ * once, on first access, so fields nobody reads are never decoded.
+ */
+public interface RawLiveMessage {
+    String decodeSender();
+
+    String decodeMessage();
+
+    LiveMessageMetadata decodeMetadata();
+
+    /** Already-decoded values, for events created from plain strings. */
+    static RawLiveMessage of(String sender, String message) {
+        return new RawLiveMessage() {
+            @Override
+            public String decodeSender() { return sender; }
+
+            @Override
+            public String decodeMessage() { return message; }
+
+            @Override
+            public LiveMessageMetadata decodeMetadata() { return LiveMessageMetadata.EMPTY; }
+        };
+    }
+}
@@ -1,8 +1,28 @@
 package me.miyeoukman.lschat.command;
 
 import me.miyeoukman.lschat.Main;
+import me.miyeoukman.lschat.api.PlatformId;
 import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
 import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.journal.DonorTotal;
+import me.miyeoukman.lschat.journal.EventJournal;
+import me.miyeoukman.lschat.journal.JournalRecord;
+import me.miyeoukman.lschat.loadtest.LoadProfile;
+import me.miyeoukman.lschat.loadtest.LoadTestRun;
+import me.miyeoukman.lschat.metrics.LatencyHistogram;
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.metrics.PlatformCounters;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkManager;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkPlatform;
+import me.miyeoukman.lschat.platform.youtube.YouTubeManager;
+import me.miyeoukman.lschat.platform.youtube.YouTubeQuotaBudget;
+import me.miyeoukman.lschat.relay.RelayFollower;
+import me.miyeoukman.lschat.relay.RelayLeader;
+import me.miyeoukman.lschat.render.LineRenderer;
+import me.miyeoukman.lschat.util.ExecutionScope;
+import me.miyeoukman.lschat.viewer.Viewer;
+import me.miyeoukman.lschat.viewer.ViewerFilter;
+import net.md_5.bungee.api.chat.BaseComponent;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -10,6 +30,11 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
 public class LSChatCommand implements CommandExecutor {
 
     private final Main plugin;
@@ -23,9 +48,15 @@ public class LSChatCommand implements CommandExecutor {
         try {
             if (args.length == 0) {
                 sender.sendMessage(ChatColor.AQUA + "LSChat v" + plugin.getDescription().getVersion());
-                sender.sendMessage(ChatColor.GRAY + "/lschat toggle - Toggle chat monitoring");
+                sender.sendMessage(ChatColor.GRAY + "/lschat toggle [platform] - Toggle chat monitoring");
+                sender.sendMessage(ChatColor.GRAY + "/lschat filter [chat|donations|channel|mute|unmute|mutere|unmutere|reset] - Your chat filters");
                 if (sender.hasPermission("lschat.admin")) {
                     sender.sendMessage(ChatColor.GRAY + "/lschat reload - Config reload");
+                    sender.sendMessage(ChatColor.GRAY + "/lschat chzzk <list|start|stop> [channelId] - Manage Chzzk channels");
+                    sender.sendMessage(ChatColor.GRAY + "/lschat stats [reset] - Throughput and latency");
+                    sender.sendMessage(ChatColor.GRAY + "/lschat replay <30m|2h|1d> [limit] - Replay journaled chat to you");
+                    sender.sendMessage(ChatColor.GRAY + "/lschat donors [since] [platform] [channel] - Top donors from the journal");
+                    sender.sendMessage(ChatColor.GRAY + "/lschat loadtest <msgs/s> <seconds> [donation-every] [burst] [direct|mock] [replay] - Soak test");
                     sender.sendMessage(ChatColor.GRAY + "/lschat test <msg> - Test chat event");
                     sender.sendMessage(ChatColor.GRAY + "/lschat testdonate <user> <amount> <msg> - Test donation event");
                 }
@@ -45,18 +76,50 @@ public class LSChatCommand implements CommandExecutor {
                 }
                 
                 org.bukkit.entity.Player player = (org.bukkit.entity.Player) sender;
-                String viewTag = plugin.getConfig().getString("settings.view-tag", "lschat_viewer");
-                
-                if (player.getScoreboardTags().contains(viewTag)) {
-                    player.removeScoreboardTag(viewTag);
-                    player.sendMessage(ChatColor.YELLOW + "LSChat monitoring disabled.");
-                } else {
-                    player.addScoreboardTag(viewTag);
+
+                // /lschat toggle <platform> hides or shows a single platform
+                if (args.length >= 2) {
+                    Viewer viewer = plugin.getViewerRegistry().get(player);
+                    if (viewer == null) {
+                        player.sendMessage(ChatColor.RED + "Enable LSChat monitoring first with /lschat toggle.");
+                        return true;
+                    }
+                    PlatformId platform = PlatformId.find(args[1]);
+                    if (platform == null) {
+                        player.sendMessage(ChatColor.RED + "Unknown platform: " + args[1]);
+                        return true;
+                    }
+                    ViewerFilter filter = viewer.getFilter().togglePlatform(platform);
+                    plugin.getViewerRegistry().setFilter(player, filter);
+                    if (filter.isPlatformHidden(platform)) {
+                        player.sendMessage(ChatColor.YELLOW + platform.getName() + " chat hidden.");
+                    } else {
+                        player.sendMessage(ChatColor.GREEN + platform.getName() + " chat shown.");
+                    }
+                    return true;
+                }
+
+                if (plugin.getViewerRegistry().toggle(player)) {
                     player.sendMessage(ChatColor.GREEN + "LSChat monitoring enabled.");
+                } else {
+                    player.sendMessage(ChatColor.YELLOW + "LSChat monitoring disabled.");
                 }
                 return true;
             }
 
+            if (args[0].equalsIgnoreCase("filter")) {
+                if (!(sender instanceof org.bukkit.entity.Player)) {
+                    sender.sendMessage(ChatColor.RED + "Only players can use this command.");
+                    return true;
+                }
+                if (!sender.hasPermission("lschat.use")) {
+                    sender.sendMessage(ChatColor.RED + "No permission.");
+                    return true;
+                }
+                handleFilter((org.bukkit.entity.Player) sender, args);
+                return true;
+            }
+
             if (args[0].equalsIgnoreCase("reload")) {
                 if (!sender.hasPermission("lschat.admin")) {
                     sender.sendMessage(ChatColor.RED + "No permission.");
@@ -67,6 +130,189 @@ public class LSChatCommand implements CommandExecutor {
                 return true;
             }
 
+            if (args[0].equalsIgnoreCase("chzzk")) {
+                if (!sender.hasPermission("lschat.admin")) {
+                    sender.sendMessage(ChatColor.RED + "No permission.");
+                    return true;
+                }
+                ChzzkManager manager = plugin.getChzzkManager();
+                if (manager == null) {
+                    sender.sendMessage(ChatColor.RED + "Chzzk is disabled in config.yml.");
+                    return true;
+                }
+                String action = args.length >= 2 ? args[1].toLowerCase() : "list";
+                if (action.equals("list")) {
+                    sender.sendMessage(ChatColor.AQUA + "Chzzk channels (" + manager.getChannels().size() + "):"
+                            + ChatColor.GRAY + " profile cache " + manager.getProfiles().size() + " users, "
+                            + manager.getProfiles().getHits() + " hits / " + manager.getProfiles().getMisses() + " misses");
+                    for (ChzzkPlatform channel : manager.getChannels()) {
+                        sender.sendMessage(ChatColor.GRAY + "- " + channel.getChannelId()
+                                + (channel.isConnected() ? ChatColor.GREEN + " connected"
+                                        : channel.isLive() ? ChatColor.RED + " disconnected" : ChatColor.DARK_GRAY + " offline")
+                                + ChatColor.GRAY + " (reconnects: " + channel.getReconnectCount()
+                                + ", downtime: " + channel.getDowntimeMillis() / 1000 + "s"
+                                + ", rtt: " + channel.getLastRttMillis() + "ms)");
+                    }
+                    return true;
+                }
+                if (args.length < 3) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /lschat chzzk <list|start|stop> [channelId]");
+                    return true;
+                }
+                if (action.equals("start")) {
+                    if (manager.startChannel(args[2])) {
+                        sender.sendMessage(ChatColor.GREEN + "Chzzk channel " + args[2] + " started.");
+                    } else {
+                        sender.sendMessage(ChatColor.YELLOW + "Chzzk channel " + args[2] + " is already running.");
+                    }
+                } else if (action.equals("stop")) {
+                    if (manager.stopChannel(args[2])) {
+                        sender.sendMessage(ChatColor.GREEN + "Chzzk channel " + args[2] + " stopped.");
+                    } else {
+                        sender.sendMessage(ChatColor.YELLOW + "Chzzk channel " + args[2] + " is not running.");
+                    }
+                } else {
+                    sender.sendMessage(ChatColor.RED + "Usage: /lschat chzzk <list|start|stop> [channelId]");
+                }
+                return true;
+            }
+
+            if (args[0].equalsIgnoreCase("stats")) {
+                if (!sender.hasPermission("lschat.admin")) {
+                    sender.sendMessage(ChatColor.RED + "No permission.");
+                    return true;
+                }
+                if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+                    Metrics.reset();
+                    sender.sendMessage(ChatColor.GREEN + "LSChat stats reset.");
+                    return true;
+                }
+                sender.sendMessage(ChatColor.AQUA + "LSChat stats");
+                for (PlatformCounters c : Metrics.platforms()) {
+                    sender.sendMessage(ChatColor.GRAY + c.getPlatform() + ": "
+                            + ChatColor.WHITE + String.format("%.1f", c.getPerSecond()) + " msg/s"
+                            + ChatColor.GRAY + " | messages " + c.getMessages()
+                            + ", donations " + c.getDonations()
+                            + ", drops " + c.getDrops()
+                            + ", parse errors " + c.getParseErrors());
+                }
+                for (LatencyHistogram h : Metrics.histograms()) {
+                    sender.sendMessage(ChatColor.GRAY + h.getName() + ": "
+                            + ChatColor.WHITE + "p50 " + formatMicros(h.percentileMicros(0.5))
+                            + ", p99 " + formatMicros(h.percentileMicros(0.99))
+                            + ", max " + formatMicros(h.getMaxMicros())
+                            + ChatColor.GRAY + " (" + h.getCount() + ")");
+                }
+                sender.sendMessage(ChatColor.GRAY + "Queue: " + plugin.getDeliveryQueue().size()
+                        + ", viewers: " + plugin.getViewerRegistry().size()
+                        + ", threads: " + (ExecutionScope.isUsingVirtualThreads() ? "virtual" : "pool")
+                        + " (" + Thread.activeCount() + " live)");
+                YouTubeManager youTube = plugin.getYouTubeManager();
+                if (youTube != null) {
+                    YouTubeQuotaBudget quota = youTube.getQuota();
+                    sender.sendMessage(ChatColor.GRAY + "YouTube quota: "
+                            + ChatColor.WHITE + quota.getRemaining() + "/" + quota.getDailyUnits() + " left"
+                            + ChatColor.GRAY + " | pollers " + quota.getActivePollers()
+                            + ", interval " + quota.getLastIntervalMillis() + "ms");
+                }
+                RelayLeader leader = plugin.getRelayLeader();
+                if (leader != null) {
+                    sender.sendMessage(ChatColor.GRAY + "Relay leader: " + ChatColor.WHITE + leader.getFollowerCount()
+                            + " followers" + ChatColor.GRAY + ", dropped frames " + leader.getDroppedFrames()
+                            + ", dropped events " + leader.getDroppedEvents());
+                }
+                RelayFollower follower = plugin.getRelayFollower();
+                if (follower != null) {
+                    sender.sendMessage(ChatColor.GRAY + "Relay follower: "
+                            + (follower.isConnected() ? ChatColor.GREEN + "connected" : ChatColor.RED + "disconnected"));
+                }
+                return true;
+            }
+
+            if (args[0].equalsIgnoreCase("replay")) {
+                if (!sender.hasPermission("lschat.admin")) {
+                    sender.sendMessage(ChatColor.RED + "No permission.");
+                    return true;
+                }
+                EventJournal journal = plugin.getJournal();
+                if (journal == null) {
+                    sender.sendMessage(ChatColor.RED + "The journal is disabled in config.yml.");
+                    return true;
+                }
+                long duration = args.length >= 2 ? parseDuration(args[1]) : -1;
+                if (duration < 0) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /lschat replay <30m|2h|1d> [limit]");
+                    return true;
+                }
+                int limit = args.length >= 3 ? Math.max(1, Integer.parseInt(args[2])) : 100;
+
+                // Rendered as the records are read; sent together on the main thread
+                LineRenderer renderer = plugin.getRenderer();
+                List<BaseComponent[]> lines = new ArrayList<>();
+                journal.replay(System.currentTimeMillis() - duration, limit, record -> lines.add(
+                        record.getType() == JournalRecord.Type.DONATION
+                                ? renderer.renderDonation(PlatformId.of(record.getPlatform()), record.getSender(), record.getMessage(), record.getAmount())
+                                : renderer.renderChat(PlatformId.of(record.getPlatform()), record.getSender(), record.getMessage())))
+                        .whenComplete((count, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                            if (error != null) {
+                                sender.sendMessage(ChatColor.RED + "Replay failed: " + error.getMessage());
+                                return;
+                            }
+                            for (BaseComponent[] line : lines) {
+                                sender.spigot().sendMessage(line);
+                            }
+                            sender.sendMessage(ChatColor.GREEN + "Replayed " + count + " events from the last " + args[1] + ".");
+                        }));
+                return true;
+            }
+
+            if (args[0].equalsIgnoreCase("donors")) {
+                if (!sender.hasPermission("lschat.admin")) {
+                    sender.sendMessage(ChatColor.RED + "No permission.");
+                    return true;
+                }
+                EventJournal journal = plugin.getJournal();
+                if (journal == null) {
+                    sender.sendMessage(ChatColor.RED + "The journal is disabled in config.yml.");
+                    return true;
+                }
+                long duration = args.length >= 2 ? parseDuration(args[1]) : 24 * 3600 * 1000L;
+                if (duration < 0) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /lschat donors [since] [platform] [channel]");
+                    return true;
+                }
+                String platform = args.length >= 3 ? args[2] : null;
+                String channel = args.length >= 4 ? args[3] : null;
+
+                journal.topDonors(platform, channel, System.currentTimeMillis() - duration, 10)
+                        .whenComplete((donors, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                            if (error != null) {
+                                sender.sendMessage(ChatColor.RED + "Query failed: " + error.getMessage());
+                                return;
+                            }
+                            sender.sendMessage(ChatColor.AQUA + "Top donors (" + (args.length >= 2 ? args[1] : "24h")
+                                    + (channel != null ? ", " + channel : "") + "):");
+                            if (donors.isEmpty()) sender.sendMessage(ChatColor.GRAY + "  (none)");
+                            int rank = 1;
+                            for (DonorTotal donor : donors) {
+                                sender.sendMessage(ChatColor.GRAY + "  " + rank++ + ". " + ChatColor.WHITE + donor.getSender()
+                                        + ChatColor.GRAY + " [" + donor.getPlatform() + "] "
+                                        + ChatColor.GOLD + String.format("%.0f", donor.getTotal())
+                                        + ChatColor.GRAY + " (" + donor.getCount() + ")");
+                            }
+                        }));
+                return true;
+            }
+
+            if (args[0].equalsIgnoreCase("loadtest")) {
+                if (!sender.hasPermission("lschat.admin")) {
+                    sender.sendMessage(ChatColor.RED + "No permission.");
+                    return true;
+                }
+                handleLoadTest(sender, args);
+                return true;
+            }
+
             if (args[0].equalsIgnoreCase("test")) {
                 if (!sender.hasPermission("lschat.admin")) return true;
                 if (args.length < 2) {
@@ -83,7 +329,7 @@ public class LSChatCommand implements CommandExecutor {
                 
                 // Fire event asynchronously
                 Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> 
-                    Bukkit.getPluginManager().callEvent(new AsyncLiveChatEvent("Test", "Tester", msg))
+                    plugin.getEventBus().publish(AsyncLiveChatEvent.class, new AsyncLiveChatEvent("Test", "Tester", msg))
                 );
                 
                 sender.sendMessage(ChatColor.GREEN + "Test chat event fired.");
@@ -115,7 +361,7 @@ public class LSChatCommand implements CommandExecutor {
                 
                 // Fire event asynchronously
                 Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> 
-                    Bukkit.getPluginManager().callEvent(new AsyncLiveDonationEvent("Test", user, msg, amount))
+                    plugin.getEventBus().publish(AsyncLiveDonationEvent.class, new AsyncLiveDonationEvent("Test", user, msg, amount))
                 );
                 
                 sender.sendMessage(ChatColor.GREEN + "Test donation event fired.");
@@ -128,4 +374,172 @@ public class LSChatCommand implements CommandExecutor {
 
         return false;
     }
+
+    private void handleFilter(org.bukkit.entity.Player player, String[] args) {
+        ViewerFilter filter = plugin.getViewerRegistry().filterOf(player);
+        String action = args.length >= 2 ? args[1].toLowerCase() : "list";
+        String value = args.length >= 3 ? String.join(" ", java.util.Arrays.copyOfRange(args, 2, args.length)) : "";
+
+        ViewerFilter updated;
+        switch (action) {
+            case "list":
+                List<String> hidden = new ArrayList<>();
+                for (PlatformId platform : PlatformId.values()) {
+                    if (filter.isPlatformHidden(platform)) hidden.add(platform.getName());
+                }
+                player.sendMessage(ChatColor.AQUA + "LSChat filters:");
+                player.sendMessage(ChatColor.GRAY + "Hidden platforms: " + ChatColor.WHITE + (hidden.isEmpty() ? "-" : String.join(", ", hidden)));
+                player.sendMessage(ChatColor.GRAY + "Chat: " + ChatColor.WHITE + (filter.isShowChat() ? "on" : "off")
+                        + ChatColor.GRAY + ", min donation: " + ChatColor.WHITE + filter.getMinDonation());
+                player.sendMessage(ChatColor.GRAY + "Channels: " + ChatColor.WHITE + (filter.getChannels().isEmpty() ? "all" : String.join(", ", filter.getChannels())));
+                player.sendMessage(ChatColor.GRAY + "Muted words: " + ChatColor.WHITE + (filter.getMutedWords().isEmpty() ? "-" : String.join(", ", filter.getMutedWords())));
+                player.sendMessage(ChatColor.GRAY + "Muted patterns: " + ChatColor.WHITE + (filter.getMutedPatterns().isEmpty() ? "-" : String.join(", ", filter.getMutedPatterns())));
+                return;
+            case "chat":
+                updated = filter.withShowChat(!value.equalsIgnoreCase("off"));
+                break;
+            case "donations":
+                try {
+                    updated = filter.withMinDonation(value.isEmpty() ? 0 : Double.parseDouble(value));
+                } catch (NumberFormatException e) {
+                    player.sendMessage(ChatColor.RED + "Invalid amount.");
+                    return;
+                }
+                break;
+            case "channel":
+                String[] parts = value.split(" ", 2);
+                if (parts[0].equalsIgnoreCase("clear")) {
+                    updated = filter.withoutChannels();
+                } else if (parts.length == 2 && (parts[0].equalsIgnoreCase("add") || parts[0].equalsIgnoreCase("remove"))) {
+                    updated = filter.withChannel(parts[1], parts[0].equalsIgnoreCase("add"));
+                } else {
+                    player.sendMessage(ChatColor.RED + "Usage: /lschat filter channel <add|remove|clear> [channelId|videoId]");
+                    return;
+                }
+                break;
+            case "mute":
+            case "unmute":
+                if (value.isEmpty()) {
+                    player.sendMessage(ChatColor.RED + "Usage: /lschat filter " + action + " <word>");
+                    return;
+                }
+                updated = filter.withMutedWord(value, action.equals("mute"));
+                break;
+            case "mutere":
+            case "unmutere":
+                if (value.isEmpty()) {
+                    player.sendMessage(ChatColor.RED + "Usage: /lschat filter " + action + " <regex>");
+                    return;
+                }
+                try {
+                    updated = filter.withMutedPattern(value, action.equals("mutere"));
+                } catch (PatternSyntaxException e) {
+                    player.sendMessage(ChatColor.RED + "Invalid regex: " + e.getDescription());
+                    return;
+                }
+                break;
+            case "reset":
+                updated = ViewerFilter.DEFAULT;
+                break;
+            default:
+                player.sendMessage(ChatColor.RED + "Usage: /lschat filter [chat|donations|channel|mute|unmute|mutere|unmutere|reset]");
+                return;
+        }
+        plugin.getViewerRegistry().setFilter(player, updated);
+        player.sendMessage(ChatColor.GREEN + "Filter updated.");
+    }
+
+    // /lschat loadtest <msgs/s> <seconds> [donation-every] [burst] [direct|mock] [replay], or /lschat loadtest stop
+    private void handleLoadTest(CommandSender sender, String[] args) throws IOException {
+        LoadTestRun current = plugin.getLoadTest();
+        if (args.length >= 2 && args[1].equalsIgnoreCase("stop")) {
+            if (current == null || !current.isRunning()) {
+                sender.sendMessage(ChatColor.YELLOW + "No load test is running.");
+                return;
+            }
+            current.stop();
+            return;
+        }
+        if (current != null && current.isRunning()) {
+            sender.sendMessage(ChatColor.RED + "A load test is already running (" + current.getProfile() + "). Use /lschat loadtest stop.");
+            return;
+        }
+        if (args.length < 3) {
+            sender.sendMessage(ChatColor.RED + "Usage: /lschat loadtest <msgs/s> <seconds> [donation-every] [burst] [direct|mock] [replay]");
+            return;
+        }
+        int rate = Integer.parseInt(args[1]);
+        int seconds = Integer.parseInt(args[2]);
+        int donationEvery = args.length >= 4 ? Integer.parseInt(args[3]) : 100;
+        int burst = args.length >= 5 ? Integer.parseInt(args[4]) : 0;
+        LoadProfile.Mode mode = LoadProfile.Mode.DIRECT;
+        boolean replay = false;
+        for (int i = 5; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("mock")) mode = LoadProfile.Mode.MOCK;
+            else if (args[i].equalsIgnoreCase("replay")) replay = true;
+        }
+        LoadProfile profile = new LoadProfile(rate, seconds, donationEvery, burst, 0.2, mode);
+
+        if (!replay) {
+            startLoadTest(sender, profile, null);
+            return;
+        }
+        EventJournal journal = plugin.getJournal();
+        if (journal == null) {
+            sender.sendMessage(ChatColor.RED + "The journal is disabled in config.yml.");
+            return;
+        }
+        // Replays the last day of captured traffic, cycled as often as the rate needs
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(System.currentTimeMillis() - 24 * 3600 * 1000L, 10000, records::add)
+                .whenComplete((count, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null || records.isEmpty()) {
+                        sender.sendMessage(ChatColor.RED + "Nothing to replay: "
+                                + (error != null ? error.getMessage() : "the journal has no records from the last 24h."));
+                        return;
+                    }
+                    try {
+                        startLoadTest(sender, profile, records);
+                    } catch (IOException e) {
+                        sender.sendMessage(ChatColor.RED + "Failed to start the load test: " + e.getMessage());
+                    }
+                }));
+    }
+
+    private void startLoadTest(CommandSender sender, LoadProfile profile, List<JournalRecord> replay) throws IOException {
+        LoadTestRun run = new LoadTestRun(plugin, profile, replay);
+        plugin.setLoadTest(run);
+        run.start(lines -> {
+            sender.sendMessage(ChatColor.AQUA + "Load test finished:");
+            for (String line : lines) {
+                sender.sendMessage(ChatColor.GRAY + "  " + line);
+            }
+        });
+        sender.sendMessage(ChatColor.GREEN + "Load test started: " + profile
+                + (replay != null ? " (replaying " + replay.size() + " journal records)" : ""));
+    }
+
+    // "30s", "15m", "2h", "1d"; -1 if unparseable
+    private static long parseDuration(String value) {
+        if (value.length() < 2) return -1;
+        long unit;
+        switch (Character.toLowerCase(value.charAt(value.length() - 1))) {
+            case 's': unit = 1000L; break;
+            case 'm': unit = 60 * 1000L; break;
+            case 'h': unit = 3600 * 1000L; break;
+            case 'd': unit = 24 * 3600 * 1000L; break;
+            default: return -1;
+        }
+        try {
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            return amount < 0 ? -1 : amount * unit;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1000) return micros + "us";
+        return String.format("%.1fms", micros / 1000.0);
+    }
 }
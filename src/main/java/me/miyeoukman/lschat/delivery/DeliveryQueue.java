@@ -0,0 +1,80 @@
+package me.miyeoukman.lschat.delivery;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free multi-producer / single-consumer queue between the platform threads
+ * and the main thread. Producers only do one getAndSet on the tail, the main
+ * thread is the only one that ever touches the head.
+ */
+public class DeliveryQueue {
+
+    private static final class Node {
+        PendingMessage value;
+        volatile Node next;
+
+        Node(PendingMessage value) { this.value = value; }
+    }
+
+    private final AtomicReference<Node> tail;
+    private Node head; // Consumer (main thread) only
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong(); // Coalesced, not yet reported
+
+    private volatile int capacity;
+    private volatile OverflowPolicy overflowPolicy;
+
+    public DeliveryQueue(int capacity, OverflowPolicy overflowPolicy) {
+        Node stub = new Node(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+        configure(capacity, overflowPolicy);
+    }
+
+    public void configure(int capacity, OverflowPolicy overflowPolicy) {
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Appends a message from any thread. Donations are never rejected; chat lines
+     * are dropped (or counted for a summary line) once the queue is full.
+     */
+    public boolean offer(PendingMessage message) {
+        // Reserve the slot first so concurrent producers can't overshoot the bound
+        if (size.incrementAndGet() > capacity && !message.isDonation()) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+            if (overflowPolicy == OverflowPolicy.COALESCE) {
+                skipped.incrementAndGet();
+            }
+            return false;
+        }
+        Node node = new Node(message);
+        Node prev = tail.getAndSet(node);
+        prev.next = node;
+        return true;
+    }
+
+    /** Main thread only. */
+    public PendingMessage poll() {
+        Node next = head.next;
+        if (next == null) return null;
+        PendingMessage value = next.value;
+        next.value = null;
+        head = next;
+        size.decrementAndGet();
+        return value;
+    }
+
+    /** Returns and resets the number of lines skipped since the last call. */
+    public long takeSkipped() {
+        return skipped.getAndSet(0);
+    }
+
+    public int size() { return size.get(); }
+    public long getDropped() { return dropped.get(); }
+}
@@ -0,0 +1,76 @@
+package me.miyeoukman.lschat.delivery;
+
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.viewer.RecipientMatcher;
+import me.miyeoukman.lschat.viewer.Viewer;
+import me.miyeoukman.lschat.viewer.ViewerRegistry;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+/**
+ * Single repeating sync task that drains the {@link DeliveryQueue} once per tick,
+ * bounded by a message count and a time budget. Whatever does not fit stays
+ * queued for the next tick.
+ */
+public class DeliveryTask extends BukkitRunnable {
+
+    private final DeliveryQueue queue;
+    private final ViewerRegistry viewerRegistry;
+    private volatile int maxMessagesPerTick;
+    private volatile long maxNanosPerTick;
+
+    public DeliveryTask(DeliveryQueue queue, ViewerRegistry viewerRegistry) {
+        this.queue = queue;
+        this.viewerRegistry = viewerRegistry;
+    }
+
+    public void configure(int maxMessagesPerTick, long maxMicrosPerTick) {
+        this.maxMessagesPerTick = Math.max(1, maxMessagesPerTick);
+        this.maxNanosPerTick = Math.max(1, maxMicrosPerTick) * 1000L;
+    }
+
+    @Override
+    public void run() {
+        long skipped = queue.takeSkipped();
+        if (queue.size() == 0 && skipped == 0) return;
+
+        long deadline = System.nanoTime() + maxNanosPerTick;
+        RecipientMatcher matcher = viewerRegistry.getMatcher();
+        Viewer[] viewers = matcher.getViewers();
+
+        int sent = 0;
+        PendingMessage message;
+        while (sent < maxMessagesPerTick && (message = queue.poll()) != null) {
+            long pickedUp = System.nanoTime();
+            Metrics.QUEUE_WAIT.recordNanos(pickedUp - message.getReceivedAtNanos());
+            deliver(viewers, message.recipientsFor(matcher), message);
+            long done = System.nanoTime();
+            Metrics.FAN_OUT.recordNanos(done - pickedUp);
+            Metrics.END_TO_END.recordNanos(done - message.getReceivedAtNanos());
+            sent++;
+            if (done >= deadline) break;
+        }
+
+        if (skipped > 0) {
+            String notice = ChatColor.DARK_GRAY + "[LSChat] " + skipped + " messages skipped";
+            for (Viewer viewer : viewers) {
+                viewer.getPlayer().sendMessage(notice);
+            }
+        }
+    }
+
+    private void deliver(Viewer[] viewers, long[] recipients, PendingMessage message) {
+        for (int w = 0; w < recipients.length; w++) {
+            long word = recipients[w];
+            while (word != 0) {
+                Player player = viewers[(w << 6) + Long.numberOfTrailingZeros(word)].getPlayer();
+                word &= word - 1;
+                player.spigot().sendMessage(message.getComponents());
+                if (message.getSound() != null) {
+                    player.playSound(player.getLocation(), message.getSound(), 1.0f, 1.0f);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package me.miyeoukman.lschat.delivery;
+
+import me.miyeoukman.lschat.api.PlatformId;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for chat lines before they are rendered and queued.
+ * Identical lines in a channel within the duplicate window are folded into
+ * one "xN" line; the rest must pass a per-sender and a per-platform token
+ * bucket. Donations never go through here.
+ */
+public class IngestLimiter {
+    /** What {@link #admit} decided for one line. */
+    public enum Admission {
+        /** Deliver it now. */
+        ACCEPT,
+        /** A repeat; it will be counted in an "xN" line from {@link #flush}. */
+        FOLDED,
+        /** Dropped by a token bucket. */
+        LIMITED
+    }
+
+    /** Receives the lines the limiter produces itself, from {@link #flush}. */
+    public interface Sink {
+        void chat(PlatformId platform, String channel, String sender, String message);
+    }
+
+    private static final class Repeat {
+        final PlatformId platform;
+        final String channel;
+        final String message;
+        final long firstSeenNanos;
+        final AtomicInteger suppressed = new AtomicInteger();
+        volatile String lastSender;
+
+        Repeat(PlatformId platform, String channel, String message, long firstSeenNanos, String sender) {
+            this.platform = platform;
+            this.channel = channel;
+            this.message = message;
+            this.firstSeenNanos = firstSeenNanos;
+            this.lastSender = sender;
+        }
+    }
+
+    private final Map<PlatformId, TokenBucket> platformBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> senderBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Repeat> repeats = new ConcurrentHashMap<>();
+    private final Queue<Repeat> closedRepeats = new ConcurrentLinkedQueue<>(); // Replaced before flush saw them
+    private final Map<PlatformId, LongAdder> limited = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+    private volatile double platformRate = 20, platformBurst = 40;
+    private volatile double senderRate = 1, senderBurst = 3;
+    private volatile long duplicateWindowNanos = 3_000_000_000L;
+    private volatile int maxTrackedSenders = 10000;
+    private volatile OverflowPolicy overflow = OverflowPolicy.COALESCE;
+
+    public void configure(boolean enabled, double platformRate, double platformBurst, double senderRate, double senderBurst,
+                          long duplicateWindowMillis, int maxTrackedSenders, OverflowPolicy overflow) {
+        this.enabled = enabled;
+        this.platformRate = platformRate;
+        this.platformBurst = Math.max(1, platformBurst);
+        this.senderRate = senderRate;
+        this.senderBurst = Math.max(1, senderBurst);
+        this.duplicateWindowNanos = duplicateWindowMillis * 1_000_000L;
+        this.maxTrackedSenders = Math.max(100, maxTrackedSenders);
+        this.overflow = overflow;
+    }
+
+    public Admission admit(PlatformId platform, String channel, String sender, String message, long nowNanos) {
+        if (!enabled) return Admission.ACCEPT;
+
+        if (duplicateWindowNanos > 0) {
+            boolean[] folded = new boolean[1];
+            repeats.compute(platform.getIndex() + "\0" + channel + "\0" + message, (key, repeat) -> {
+                if (repeat != null && nowNanos - repeat.firstSeenNanos < duplicateWindowNanos) {
+                    repeat.lastSender = sender;
+                    repeat.suppressed.incrementAndGet();
+                    folded[0] = true;
+                    return repeat;
+                }
+                if (repeat != null && repeat.suppressed.get() > 0) closedRepeats.offer(repeat);
+                return new Repeat(platform, channel, message, nowNanos, sender);
+            });
+            if (folded[0]) return Admission.FOLDED;
+        }
+
+        if (senderRate > 0) {
+            TokenBucket bucket = senderBuckets.computeIfAbsent(platform.getIndex() + "\0" + sender, k -> new TokenBucket(senderBurst, nowNanos));
+            if (!bucket.tryAcquire(senderRate, senderBurst, nowNanos)) return reject(platform);
+        }
+        if (platformRate > 0) {
+            TokenBucket bucket = platformBuckets.computeIfAbsent(platform, k -> new TokenBucket(platformBurst, nowNanos));
+            if (!bucket.tryAcquire(platformRate, platformBurst, nowNanos)) return reject(platform);
+        }
+        return Admission.ACCEPT;
+    }
+
+    private Admission reject(PlatformId platform) {
+        limited.computeIfAbsent(platform, k -> new LongAdder()).increment();
+        return Admission.LIMITED;
+    }
+
+    /**
+     * Emits "xN" lines for duplicate windows that have closed, a notice for
+     * rate-limited lines (under COALESCE), and evicts idle sender buckets.
+     * Call periodically from one thread.
+     */
+    public void flush(long nowNanos, Sink sink) {
+        Repeat closed;
+        while ((closed = closedRepeats.poll()) != null) {
+            emitRepeat(closed, sink);
+        }
+        for (Map.Entry<String, Repeat> entry : repeats.entrySet()) {
+            Repeat repeat = entry.getValue();
+            // Once removed, admit can no longer add to its count
+            if (nowNanos - repeat.firstSeenNanos >= duplicateWindowNanos && repeats.remove(entry.getKey(), repeat)) {
+                emitRepeat(repeat, sink);
+            }
+        }
+
+        for (Map.Entry<PlatformId, LongAdder> entry : limited.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count > 0 && overflow == OverflowPolicy.COALESCE) {
+                sink.chat(entry.getKey(), "", "LSChat", count + " messages hidden by the rate limit");
+            }
+        }
+
+        evictSenders(nowNanos);
+    }
+
+    private static void emitRepeat(Repeat repeat, Sink sink) {
+        int count = repeat.suppressed.get();
+        if (count > 0) {
+            sink.chat(repeat.platform, repeat.channel, repeat.lastSender, repeat.message + " x" + count);
+        }
+    }
+
+    private void evictSenders(long nowNanos) {
+        // Buckets idle long enough to have refilled completely carry no state worth keeping
+        long idleNanos = senderRate > 0 ? (long) (senderBurst / senderRate * 1_000_000_000d) : 0;
+        senderBuckets.values().removeIf(bucket -> nowNanos - bucket.getLastUsedNanos() > idleNanos);
+        // Still over the bound during a flood of new senders: forget arbitrary ones
+        for (Iterator<String> it = senderBuckets.keySet().iterator(); it.hasNext() && senderBuckets.size() > maxTrackedSenders; ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public int getTrackedSenders() { return senderBuckets.size(); }
+}
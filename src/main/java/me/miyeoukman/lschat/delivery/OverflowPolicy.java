@@ -0,0 +1,15 @@
+package me.miyeoukman.lschat.delivery;
+
+public enum OverflowPolicy {
+    DROP,     // Discard chat lines that arrive while the queue is full
+    COALESCE; // Discard them too, but tell viewers how many were skipped
+
+    public static OverflowPolicy fromConfig(String name) {
+        if (name == null) return COALESCE;
+        try {
+            return OverflowPolicy.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return COALESCE;
+        }
+    }
+}
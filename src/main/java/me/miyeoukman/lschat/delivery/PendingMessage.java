@@ -0,0 +1,58 @@
+package me.miyeoukman.lschat.delivery;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.viewer.RecipientMatcher;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.Sound;
+
+public class PendingMessage {
+    private final PlatformId platform;
+    private final BaseComponent[] components; // Rendered once, shared by every viewer
+    private final Sound sound; // null for plain chat lines
+    private final long receivedAtNanos;
+    // What viewer filters look at, kept in case the matcher changes before delivery
+    private final String channel;
+    private final String text;
+    private final boolean donation;
+    private final double amount;
+    private RecipientMatcher matcher;
+    private long[] recipients;
+
+    public PendingMessage(PlatformId platform, BaseComponent[] components, Sound sound, long receivedAtNanos) {
+        this(platform, "", null, sound != null, 0, components, sound, receivedAtNanos);
+    }
+
+    public PendingMessage(PlatformId platform, String channel, String text, boolean donation, double amount,
+                          BaseComponent[] components, Sound sound, long receivedAtNanos) {
+        this.platform = platform;
+        this.components = components;
+        this.sound = sound;
+        this.receivedAtNanos = receivedAtNanos;
+        this.channel = channel;
+        this.text = text;
+        this.donation = donation;
+        this.amount = amount;
+    }
+
+    /** Matches viewer filters ahead of time, on the producing thread. */
+    public PendingMessage matchWith(RecipientMatcher matcher) {
+        this.recipients = matcher.match(platform, channel, text, donation, amount);
+        this.matcher = matcher;
+        return this;
+    }
+
+    /** Recipients under the given matcher, reusing the precomputed set if it is still current. */
+    public long[] recipientsFor(RecipientMatcher current) {
+        if (matcher != current) {
+            recipients = current.match(platform, channel, text, donation, amount);
+            matcher = current;
+        }
+        return recipients;
+    }
+
+    public PlatformId getPlatform() { return platform; }
+    public BaseComponent[] getComponents() { return components; }
+    public Sound getSound() { return sound; }
+    public boolean isDonation() { return donation; }
+    public long getReceivedAtNanos() { return receivedAtNanos; }
+}
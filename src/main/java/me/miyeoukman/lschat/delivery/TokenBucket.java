@@ -0,0 +1,25 @@
+package me.miyeoukman.lschat.delivery;
+
+/** Classic token bucket refilled lazily on each acquire. */
+final class TokenBucket {
+    private double tokens;
+    private long lastRefillNanos;
+    private volatile long lastUsedNanos;
+
+    TokenBucket(double burst, long nowNanos) {
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+        this.lastUsedNanos = nowNanos;
+    }
+
+    synchronized boolean tryAcquire(double ratePerSecond, double burst, long nowNanos) {
+        lastUsedNanos = nowNanos;
+        tokens = Math.min(burst, tokens + (nowNanos - lastRefillNanos) * ratePerSecond / 1_000_000_000d);
+        lastRefillNanos = nowNanos;
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    long getLastUsedNanos() { return lastUsedNanos; }
+}
@@ -0,0 +1,32 @@
+package me.miyeoukman.lschat.journal;
+
+/** Sum of one sender's donations on one platform, as returned by {@link EventJournal#topDonors}. */
+public final class DonorTotal {
+    private final String platform;
+    private final String channel; // Empty when the total spans channels
+    private final String sender;
+    private double total;
+    private int count;
+
+    DonorTotal(String platform, String channel, String sender) {
+        this.platform = platform;
+        this.channel = channel;
+        this.sender = sender;
+    }
+
+    void add(double amount) {
+        total += amount;
+        count++;
+    }
+
+    void add(DonorTotal other) {
+        total += other.total;
+        count += other.count;
+    }
+
+    public String getPlatform() { return platform; }
+    public String getChannel() { return channel; }
+    public String getSender() { return sender; }
+    public double getTotal() { return total; }
+    public int getCount() { return count; }
+}
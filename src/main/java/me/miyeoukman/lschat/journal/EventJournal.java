@@ -0,0 +1,323 @@
+package me.miyeoukman.lschat.journal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only journal of chats and donations in rotating binary segments
+ * (journal/segment-<first millis>.lsj). Ingest threads only enqueue; a single
+ * writer thread batches records into one write and one fsync per flush interval.
+ * Replays and queries run on the same thread, so they see everything appended
+ * before them. Donations are also summed per platform, channel and sender in
+ * hourly buckets, so donor queries never touch the segments.
+ */
+public class EventJournal {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".lsj";
+    private static final int MAX_PENDING = 100_000;
+    private static final long BUCKET_MILLIS = 3_600_000L;
+
+    private final File directory;
+    private final long segmentBytes;
+    private final long retentionMillis;
+    private final Logger logger;
+
+    private final ConcurrentLinkedQueue<JournalRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final ScheduledExecutorService writer;
+
+    // Writer thread only
+    private final JournalCodec codec = new JournalCodec();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(JournalCodec.MAX_RECORD * 2);
+    // Hour start -> totals keyed by platform, channel and sender
+    private final TreeMap<Long, Map<String, DonorTotal>> donationBuckets = new TreeMap<>();
+    // Encoded into buffer but not yet on disk; donations join the index only once written
+    private final List<JournalRecord> bufferedDonations = new ArrayList<>();
+    private int bufferedRecords;
+    private FileChannel channel;
+    private long written;
+
+    public EventJournal(File directory, long segmentBytes, long retentionMillis, long flushIntervalMillis, Logger logger) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retentionMillis = retentionMillis;
+        this.logger = logger;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LSChat-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.execute(this::open);
+        writer.scheduleWithFixedDelay(this::drain, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Never blocks; returns false (and counts a drop) if the writer is too far behind. */
+    public boolean append(JournalRecord record) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        pending.offer(record);
+        return true;
+    }
+
+    /**
+     * Feeds the most recent limit records at or after fromMillis to the consumer,
+     * oldest first. The consumer runs on the journal thread.
+     */
+    public CompletableFuture<Integer> replay(long fromMillis, int limit, Consumer<JournalRecord> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            drain();
+            ArrayDeque<JournalRecord> latest = new ArrayDeque<>(Math.min(limit, 1024));
+            readSegments(fromMillis, record -> {
+                if (record.getTimestampMillis() >= fromMillis) {
+                    latest.addLast(record);
+                    if (latest.size() > limit) latest.pollFirst();
+                }
+                return true;
+            });
+            latest.forEach(consumer);
+            return latest.size();
+        }, writer);
+    }
+
+    /**
+     * Biggest donors since sinceMillis (rounded down to the hour), optionally for
+     * one platform and one channel (stream) only; null for all.
+     */
+    public CompletableFuture<List<DonorTotal>> topDonors(String platform, String channel, long sinceMillis, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            drain();
+            Map<String, DonorTotal> totals = new HashMap<>();
+            for (Map<String, DonorTotal> bucket : donationBuckets.tailMap(bucketOf(sinceMillis), true).values()) {
+                for (DonorTotal donor : bucket.values()) {
+                    if (platform != null && !platform.equalsIgnoreCase(donor.getPlatform())) continue;
+                    if (channel != null && !channel.equals(donor.getChannel())) continue;
+                    // Currencies differ per platform, so totals never mix platforms
+                    String key = donor.getPlatform() + '\0' + donor.getSender();
+                    totals.computeIfAbsent(key, k -> new DonorTotal(donor.getPlatform(), channel != null ? channel : "",
+                            donor.getSender())).add(donor);
+                }
+            }
+            List<DonorTotal> result = new ArrayList<>(totals.values());
+            result.sort(Comparator.comparingDouble(DonorTotal::getTotal).reversed());
+            return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+        }, writer);
+    }
+
+    public long getDropped() { return dropped.sum(); }
+
+    public int getPending() { return pendingCount.get(); }
+
+    /** Flushes everything still queued and closes the current segment. */
+    public void close() {
+        writer.execute(() -> {
+            drain();
+            closeSegment();
+        });
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Journal writer did not finish in time; recent events may be lost.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void open() {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            logger.warning("Could not create journal directory " + directory);
+            return;
+        }
+        deleteExpiredSegments();
+        // Rebuild the donation index; chats are only read back on replay
+        long since = System.currentTimeMillis() - retentionMillis;
+        readSegments(since, record -> {
+            if (record.getType() == JournalRecord.Type.DONATION && record.getTimestampMillis() >= since) {
+                index(record);
+            }
+            return true;
+        });
+        // Always start a fresh segment, so a torn tail from a crash stays at the end of the old one
+        rotate();
+    }
+
+    private void drain() {
+        if (channel == null) {
+            discardPending();
+            return;
+        }
+        boolean wrote = false;
+        try {
+            JournalRecord record;
+            while ((record = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                if (!codec.encode(record, buffer)) {
+                    writeBuffer();
+                    codec.encode(record, buffer);
+                }
+                if (record.getType() == JournalRecord.Type.DONATION) bufferedDonations.add(record);
+                bufferedRecords++;
+                wrote = true;
+                if (written + buffer.position() >= segmentBytes) {
+                    writeBuffer();
+                    channel.force(false);
+                    rotate();
+                    if (channel == null) return;
+                }
+            }
+            if (wrote) {
+                writeBuffer();
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write journal segment", e);
+            // Whatever was buffered is lost; a partial write is a torn tail the reader stops at
+            buffer.clear();
+            dropped.add(bufferedRecords);
+            bufferedRecords = 0;
+            bufferedDonations.clear();
+            closeSegment();
+            rotate();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        buffer.clear();
+        bufferedDonations.forEach(this::index);
+        bufferedDonations.clear();
+        bufferedRecords = 0;
+    }
+
+    private void rotate() {
+        closeSegment();
+        File segment = new File(directory, SEGMENT_PREFIX + String.format("%013d", System.currentTimeMillis()) + SEGMENT_SUFFIX);
+        try {
+            channel = FileChannel.open(segment.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            written = channel.size();
+            if (written == 0) {
+                ByteBuffer header = ByteBuffer.allocate(4).putInt(0, JournalCodec.SEGMENT_MAGIC);
+                written += channel.write(header);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to open journal segment " + segment.getName(), e);
+            channel = null;
+        }
+        deleteExpiredSegments();
+        pruneDonations();
+    }
+
+    private void closeSegment() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    private void discardPending() {
+        while (pending.poll() != null) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    /** Reads segments in order; the visitor returns false to stop. */
+    private void readSegments(long fromMillis, RecordVisitor visitor) {
+        File[] segments = listSegments();
+        for (int i = 0; i < segments.length; i++) {
+            // Skip whole segments that end before fromMillis (the next one started earlier)
+            if (i + 1 < segments.length && startOf(segments[i + 1]) <= fromMillis) continue;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segments[i]), 65536))) {
+                int magic = in.readInt();
+                if (magic != JournalCodec.SEGMENT_MAGIC && magic != JournalCodec.SEGMENT_MAGIC_V1) continue;
+                JournalRecord record;
+                while ((record = codec.decode(in, magic)) != null) {
+                    if (!visitor.visit(record)) return;
+                }
+            } catch (IOException e) {
+                logger.fine("Skipping unreadable journal segment " + segments[i].getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void deleteExpiredSegments() {
+        File[] segments = listSegments();
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        // A segment is expired once the one after it started before the cutoff
+        for (int i = 0; i + 1 < segments.length; i++) {
+            if (startOf(segments[i + 1]) < cutoff && !segments[i].delete()) {
+                logger.fine("Could not delete expired journal segment " + segments[i].getName());
+            }
+        }
+    }
+
+    private void index(JournalRecord donation) {
+        String key = donation.getPlatform() + '\0' + donation.getChannel() + '\0' + donation.getSender();
+        donationBuckets.computeIfAbsent(bucketOf(donation.getTimestampMillis()), k -> new HashMap<>())
+                .computeIfAbsent(key, k -> new DonorTotal(donation.getPlatform(), donation.getChannel(), donation.getSender()))
+                .add(donation.getAmount());
+    }
+
+    private void pruneDonations() {
+        // Keeps the bucket the cutoff falls in, like the segment holding it
+        donationBuckets.headMap(bucketOf(System.currentTimeMillis() - retentionMillis)).clear();
+    }
+
+    private static long bucketOf(long millis) {
+        return millis - Math.floorMod(millis, BUCKET_MILLIS);
+    }
+
+    private File[] listSegments() {
+        File[] segments = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (segments == null) return new File[0];
+        Arrays.sort(segments, Comparator.comparing(File::getName));
+        return segments;
+    }
+
+    private static long startOf(File segment) {
+        String name = segment.getName();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private interface RecordVisitor {
+        boolean visit(JournalRecord record);
+    }
+}
@@ -0,0 +1,107 @@
+package me.miyeoukman.lschat.journal;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Binary record layout: [int length][int crc32][payload]. The payload is
+ * [byte type][long timestamp][str platform][str channel][str sender][str message]
+ * plus [double amount] for donations, where str is [short length][UTF-8 bytes].
+ * Version 1 segments have no channel. A record whose CRC doesn't match is a
+ * torn write and ends the segment.
+ */
+final class JournalCodec {
+    static final int SEGMENT_MAGIC = 0x4C534A32; // "LSJ2", written
+    static final int SEGMENT_MAGIC_V1 = 0x4C534A31; // "LSJ1", read only
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final int MAX_PAYLOAD = 1 + 8 + 8 + 8 + 4 * MAX_STRING_BYTES;
+    /** Largest encoded record, so a buffer of this size always fits one. */
+    static final int MAX_RECORD = 8 + MAX_PAYLOAD;
+
+    private final CRC32 crc = new CRC32();
+
+    /** Encodes into buffer, or returns false without writing if it doesn't fit. */
+    boolean encode(JournalRecord record, ByteBuffer buffer) {
+        byte[] platform = bytes(record.getPlatform());
+        byte[] channel = bytes(record.getChannel());
+        byte[] sender = bytes(record.getSender());
+        byte[] message = bytes(record.getMessage());
+        boolean donation = record.getType() == JournalRecord.Type.DONATION;
+        int length = 1 + 8 + 8 + platform.length + channel.length + sender.length + message.length + (donation ? 8 : 0);
+        if (buffer.remaining() < 8 + length) return false;
+
+        int start = buffer.position();
+        buffer.putInt(length).putInt(0);
+        buffer.put((byte) record.getType().ordinal()).putLong(record.getTimestampMillis());
+        putString(buffer, platform);
+        putString(buffer, channel);
+        putString(buffer, sender);
+        putString(buffer, message);
+        if (donation) buffer.putDouble(record.getAmount());
+
+        crc.reset();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + 8).limit(start + 8 + length);
+        crc.update(payload);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        return true;
+    }
+
+    /** Returns the next record, or null at end of segment or on a torn/corrupt tail. */
+    JournalRecord decode(DataInputStream in, int magic) throws IOException {
+        int length;
+        int expected;
+        try {
+            length = in.readInt();
+            expected = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length <= 0 || length > MAX_PAYLOAD) return null;
+        byte[] payload = new byte[length];
+        try {
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+        if ((int) crc.getValue() != expected) return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        JournalRecord.Type type = JournalRecord.Type.values()[buffer.get()];
+        long timestamp = buffer.getLong();
+        String platform = getString(buffer);
+        String channel = magic == SEGMENT_MAGIC_V1 ? "" : getString(buffer);
+        String sender = getString(buffer);
+        String message = getString(buffer);
+        double amount = type == JournalRecord.Type.DONATION ? buffer.getDouble() : 0;
+        return new JournalRecord(type, timestamp, platform, channel, sender, message, amount);
+    }
+
+    private static byte[] bytes(String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_BYTES) return bytes;
+        // Back up to a character boundary so the cut never splits a multi-byte sequence
+        int length = MAX_STRING_BYTES;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) length--;
+        byte[] truncated = new byte[length];
+        System.arraycopy(bytes, 0, truncated, 0, length);
+        return truncated;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,41 @@
+package me.miyeoukman.lschat.journal;
+
+/** One chat line or donation as stored in the journal. */
+public final class JournalRecord {
+    public enum Type { CHAT, DONATION }
+
+    private final Type type;
+    private final long timestampMillis;
+    private final String platform;
+    private final String channel; // Chzzk channel ID or YouTube video ID; "" in pre-channel segments
+    private final String sender;
+    private final String message;
+    private final double amount;
+
+    public JournalRecord(Type type, long timestampMillis, String platform, String channel, String sender, String message,
+                         double amount) {
+        this.type = type;
+        this.timestampMillis = timestampMillis;
+        this.platform = platform;
+        this.channel = channel == null ? "" : channel;
+        this.sender = sender;
+        this.message = message;
+        this.amount = amount;
+    }
+
+    public static JournalRecord chat(String platform, String channel, String sender, String message) {
+        return new JournalRecord(Type.CHAT, System.currentTimeMillis(), platform, channel, sender, message, 0);
+    }
+
+    public static JournalRecord donation(String platform, String channel, String sender, String message, double amount) {
+        return new JournalRecord(Type.DONATION, System.currentTimeMillis(), platform, channel, sender, message, amount);
+    }
+
+    public Type getType() { return type; }
+    public long getTimestampMillis() { return timestampMillis; }
+    public String getPlatform() { return platform; }
+    public String getChannel() { return channel; }
+    public String getSender() { return sender; }
+    public String getMessage() { return message; }
+    public double getAmount() { return amount; }
+}
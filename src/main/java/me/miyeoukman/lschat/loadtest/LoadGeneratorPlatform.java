@@ -0,0 +1,95 @@
+package me.miyeoukman.lschat.loadtest;
+
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.event.AsyncLiveMessageEvent;
+import me.miyeoukman.lschat.platform.LivePlatform;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkMessageHandler;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkProfileCache;
+import me.miyeoukman.lschat.platform.youtube.YouTubeMessageHandler;
+import me.miyeoukman.lschat.util.ExecutionScope;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Synthetic platform for load tests: every few milliseconds it hands the
+ * messages that are due to the real Chzzk and YouTube decoders, so everything
+ * from parsing to delivery carries the load. Stops by itself when the profile's
+ * duration is over.
+ */
+public class LoadGeneratorPlatform implements LivePlatform {
+    /** Channel of every generated event, in both direct and mock mode; never a real Chzzk or YouTube ID. */
+    public static final String CHANNEL = "lschat-loadtest";
+    private static final int FRAME_SIZE = 20; // Messages per Chzzk frame; real frames carry a handful to a few dozen
+    private static final long STEP_MILLIS = 20;
+
+    private final Logger logger;
+    private final LoadProfile profile;
+    private final TrafficGenerator generator;
+    private final ChzzkMessageHandler chzzk;
+    private final YouTubeMessageHandler youTube;
+    private ExecutionScope scope;
+    private volatile boolean running = false;
+    private long startedAt;
+    private long emitted;
+    private long emittedYouTube;
+
+    public LoadGeneratorPlatform(LiveEventBus bus, Logger logger, LoadProfile profile, TrafficGenerator generator) {
+        this.logger = logger;
+        this.profile = profile;
+        this.generator = generator;
+        this.chzzk = new ChzzkMessageHandler(bus, CHANNEL, null, new ChzzkProfileCache(10000, 600_000L));
+        this.youTube = new YouTubeMessageHandler(bus, CHANNEL);
+    }
+
+    @Override
+    public String getName() { return "LoadTest"; }
+
+    @Override
+    public void start() {
+        running = true;
+        startedAt = System.nanoTime();
+        scope = ExecutionScope.open("LSChat-LoadTest", 1);
+        scope.scheduler().scheduleAtFixedRate(this::step, 0, STEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void step() {
+        if (!running) return;
+        try {
+            long elapsed = (System.nanoTime() - startedAt) / 1_000_000L;
+            long target = profile.targetAt(elapsed);
+            long youTubeTarget = (long) (target * profile.getYouTubeShare());
+            int youTubeDue = (int) (youTubeTarget - emittedYouTube);
+            int chzzkDue = (int) (target - emitted) - youTubeDue;
+            emitted = target;
+            emittedYouTube = youTubeTarget;
+
+            while (chzzkDue > 0) {
+                int count = Math.min(FRAME_SIZE, chzzkDue);
+                chzzk.handleFrame(generator.chzzkFrame(count));
+                chzzkDue -= count;
+            }
+            if (youTubeDue > 0) youTube.handlePage(generator.youTubePage(youTubeDue, "loadtest", 1000));
+            if (elapsed >= profile.getSeconds() * 1000L) running = false;
+        } catch (RuntimeException e) {
+            logger.warning("Load generator failed: " + e);
+            running = false;
+        }
+    }
+
+    /** True for load test traffic, which stays out of the journal, the relay and donation alerts. */
+    public static boolean isGenerated(AsyncLiveMessageEvent event) {
+        return CHANNEL.equals(event.getChannel());
+    }
+
+    public long getEmitted() { return emitted; }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scope != null) scope.close(1000);
+    }
+
+    @Override
+    public boolean isRunning() { return running; }
+}
@@ -0,0 +1,51 @@
+package me.miyeoukman.lschat.loadtest;
+
+/**
+ * What a load test generates: a steady rate, periodic bursts, and how the
+ * traffic reaches the plugin.
+ */
+public final class LoadProfile {
+    public enum Mode {
+        /** Frames and pages are handed straight to the platform decoders. */
+        DIRECT,
+        /** Real Chzzk and YouTube clients connect to a local mock server. */
+        MOCK
+    }
+
+    private final int messagesPerSecond;
+    private final int seconds;
+    private final int donationEvery;
+    private final int burst; // Extra messages dumped at once every BURST_INTERVAL_SECONDS
+    private final double youTubeShare;
+    private final Mode mode;
+
+    public static final int BURST_INTERVAL_SECONDS = 10;
+
+    public LoadProfile(int messagesPerSecond, int seconds, int donationEvery, int burst, double youTubeShare, Mode mode) {
+        this.messagesPerSecond = Math.max(1, messagesPerSecond);
+        this.seconds = Math.max(1, seconds);
+        this.donationEvery = Math.max(0, donationEvery);
+        this.burst = Math.max(0, burst);
+        this.youTubeShare = Math.min(1, Math.max(0, youTubeShare));
+        this.mode = mode;
+    }
+
+    public int getMessagesPerSecond() { return messagesPerSecond; }
+    public int getSeconds() { return seconds; }
+    public int getDonationEvery() { return donationEvery; }
+    public int getBurst() { return burst; }
+    public double getYouTubeShare() { return youTubeShare; }
+    public Mode getMode() { return mode; }
+
+    /** Messages that should have been generated {@code elapsedMillis} into the test. */
+    public long targetAt(long elapsedMillis) {
+        long elapsed = Math.min(elapsedMillis, seconds * 1000L);
+        return messagesPerSecond * elapsed / 1000 + burst * (elapsed / (BURST_INTERVAL_SECONDS * 1000L));
+    }
+
+    @Override
+    public String toString() {
+        return messagesPerSecond + " msg/s for " + seconds + "s, donation every " + donationEvery
+                + ", burst " + burst + "/" + BURST_INTERVAL_SECONDS + "s, YouTube " + Math.round(youTubeShare * 100) + "%, " + mode;
+    }
+}
@@ -0,0 +1,96 @@
+package me.miyeoukman.lschat.loadtest;
+
+import me.miyeoukman.lschat.metrics.LatencyHistogram;
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.metrics.PlatformCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a load test: how far the pipeline metrics moved since a
+ * {@link Baseline} taken when the run started, plus the numbers only the run
+ * itself knows. The metrics are never reset, so exported counters keep
+ * counting; live traffic during the run is included in the figures.
+ */
+public final class LoadTestReport {
+    /** Pipeline counters and histograms at one moment. */
+    public static final class Baseline {
+        final long messages, donations, drops, parseErrors;
+        final LatencyHistogram endToEnd = Metrics.END_TO_END.snapshot();
+        final LatencyHistogram queueWait = Metrics.QUEUE_WAIT.snapshot();
+        final LatencyHistogram fanOut = Metrics.FAN_OUT.snapshot();
+
+        private Baseline() {
+            long messages = 0, donations = 0, drops = 0, parseErrors = 0;
+            for (PlatformCounters counters : Metrics.platforms()) {
+                messages += counters.getMessages();
+                donations += counters.getDonations();
+                drops += counters.getDrops();
+                parseErrors += counters.getParseErrors();
+            }
+            this.messages = messages;
+            this.donations = donations;
+            this.drops = drops;
+            this.parseErrors = parseErrors;
+        }
+
+        public static Baseline capture() {
+            return new Baseline();
+        }
+    }
+
+    private final LoadProfile profile;
+    private final Baseline baseline;
+    private final long generated;
+    private final long queueDropped;
+    private final int queueRemaining;
+    private final LatencyHistogram ticks;
+    private final long lateTicks;
+
+    /**
+     * @param ticks tick-to-tick intervals seen by the main thread (or the harness's simulated ticks)
+     * @param lateTicks ticks that started later than {@link LoadTestRun#LATE_TICK_MICROS}
+     */
+    public LoadTestReport(LoadProfile profile, Baseline baseline, long generated, long queueDropped, int queueRemaining,
+                          LatencyHistogram ticks, long lateTicks) {
+        this.profile = profile;
+        this.baseline = baseline;
+        this.generated = generated;
+        this.queueDropped = queueDropped;
+        this.queueRemaining = queueRemaining;
+        this.ticks = ticks;
+        this.lateTicks = lateTicks;
+    }
+
+    public List<String> toLines() {
+        Baseline now = Baseline.capture();
+        long messages = now.messages - baseline.messages;
+        long donations = now.donations - baseline.donations;
+        long drops = now.drops - baseline.drops;
+        long parseErrors = now.parseErrors - baseline.parseErrors;
+        List<String> lines = new ArrayList<>();
+        lines.add("Profile: " + profile);
+        lines.add("Generated " + generated + ", decoded " + messages + " chats + " + donations + " donations, "
+                + parseErrors + " parse errors");
+        // Queue overflows are counted as platform drops too; the rest were held back by the limiter
+        lines.add("Dropped " + drops + " (limiter " + Math.max(0, drops - queueDropped) + ", queue " + queueDropped
+                + "), still queued " + queueRemaining);
+        lines.add(latency("End-to-end", Metrics.END_TO_END.since(baseline.endToEnd)));
+        lines.add(latency("Queue wait", Metrics.QUEUE_WAIT.since(baseline.queueWait)));
+        lines.add(latency("Fan-out", Metrics.FAN_OUT.since(baseline.fanOut)));
+        lines.add(latency("Tick interval", ticks) + ", late " + lateTicks + "/" + ticks.getCount());
+        return lines;
+    }
+
+    private static String latency(String label, LatencyHistogram histogram) {
+        return label + ": p50 " + formatMicros(histogram.percentileMicros(0.5))
+                + ", p99 " + formatMicros(histogram.percentileMicros(0.99))
+                + ", max " + formatMicros(histogram.getMaxMicros());
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1000) return micros + "us";
+        return String.format("%.1fms", micros / 1000.0);
+    }
+}
@@ -0,0 +1,144 @@
+package me.miyeoukman.lschat.loadtest;
+
+import me.miyeoukman.lschat.Main;
+import me.miyeoukman.lschat.journal.JournalRecord;
+import me.miyeoukman.lschat.metrics.LatencyHistogram;
+import me.miyeoukman.lschat.platform.chzzk.ChzzkManager;
+import me.miyeoukman.lschat.platform.youtube.YouTubeManager;
+import me.miyeoukman.lschat.platform.youtube.YouTubeQuotaBudget;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * One soak test inside a running server: drives generated traffic through the
+ * plugin for the profile's duration, watches the main thread tick by tick, and
+ * hands a {@link LoadTestReport} to the caller once the queue has had time to
+ * drain.
+ */
+public class LoadTestRun {
+    public static final long LATE_TICK_MICROS = 55_000; // A 50ms tick plus some slack
+    private static final long DRAIN_TICKS = 40;
+
+    private final Main plugin;
+    private final LoadProfile profile;
+    private final TrafficGenerator generator;
+    private final LatencyHistogram ticks = new LatencyHistogram("tick");
+    private long lateTicks;
+    private long queueDroppedBefore;
+    private LoadTestReport.Baseline baseline;
+
+    private LoadGeneratorPlatform direct;
+    private MockLiveServer mockServer;
+    private ChzzkManager mockChzzk;
+    private YouTubeManager mockYouTube;
+    private BukkitTask monitorTask;
+    private BukkitTask finishTask;
+    private Consumer<List<String>> onFinish;
+    private volatile boolean running = false;
+
+    public LoadTestRun(Main plugin, LoadProfile profile, List<JournalRecord> replay) {
+        this.plugin = plugin;
+        this.profile = profile;
+        this.generator = new TrafficGenerator(profile.getDonationEvery(), replay);
+    }
+
+    /** Starts generating; must be called on the main thread. */
+    public void start(Consumer<List<String>> onFinish) throws IOException {
+        this.onFinish = onFinish;
+        // Deltas instead of a reset, so production counters and exports keep counting
+        baseline = LoadTestReport.Baseline.capture();
+        queueDroppedBefore = plugin.getDeliveryQueue().getDropped();
+        running = true;
+
+        if (profile.getMode() == LoadProfile.Mode.MOCK) {
+            startMock();
+        } else {
+            direct = new LoadGeneratorPlatform(plugin.getEventBus(), plugin.getLogger(), profile, generator);
+            direct.start();
+        }
+
+        monitorTask = new BukkitRunnable() {
+            private long lastTickAt = System.nanoTime();
+
+            @Override
+            public void run() {
+                long now = System.nanoTime();
+                long micros = (now - lastTickAt) / 1000L;
+                lastTickAt = now;
+                ticks.recordMicros(micros);
+                if (micros > LATE_TICK_MICROS) lateTicks++;
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+        finishTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                stopTraffic();
+                finishTask = new BukkitRunnable() {
+                    @Override
+                    public void run() { finish(); }
+                }.runTaskLater(plugin, DRAIN_TICKS);
+            }
+        }.runTaskLater(plugin, profile.getSeconds() * 20L);
+        plugin.getLogger().info("Load test started: " + profile);
+    }
+
+    // Real Chzzk and YouTube clients, pointed at a local mock server
+    private void startMock() throws IOException {
+        mockServer = new MockLiveServer(plugin.getLogger(), profile, generator);
+        mockServer.start();
+
+        YamlConfiguration chzzkConfig = new YamlConfiguration();
+        chzzkConfig.set("endpoints.api", mockServer.getApiUrl());
+        chzzkConfig.set("endpoints.chat-api", mockServer.getApiUrl());
+        chzzkConfig.set("endpoints.chat-server", mockServer.getChatServerUrl());
+        chzzkConfig.set("live-check-interval-seconds", 1);
+        mockChzzk = new ChzzkManager(plugin, Collections.singletonList(LoadGeneratorPlatform.CHANNEL), chzzkConfig);
+        mockChzzk.start();
+
+        if (profile.getYouTubeShare() > 0) {
+            // A budget large enough that the mock's polling interval is the only limit
+            mockYouTube = new YouTubeManager(plugin, Collections.singletonList(LoadGeneratorPlatform.CHANNEL),
+                    "loadtest", mockServer.getYouTubeApiUrl(), new YouTubeQuotaBudget(1_000_000_000L, 1));
+            mockYouTube.start();
+        }
+    }
+
+    private void stopTraffic() {
+        if (direct != null) direct.stop();
+        if (mockChzzk != null) mockChzzk.stop();
+        if (mockYouTube != null) mockYouTube.stop();
+        if (mockServer != null) mockServer.stop();
+    }
+
+    /** Stops early and reports what was measured so far. */
+    public void stop() {
+        if (!running) return;
+        stopTraffic();
+        if (finishTask != null) finishTask.cancel();
+        finish();
+    }
+
+    private void finish() {
+        if (!running) return;
+        running = false;
+        if (monitorTask != null) monitorTask.cancel();
+        LoadTestReport report = new LoadTestReport(profile, baseline, generator.getGenerated(),
+                plugin.getDeliveryQueue().getDropped() - queueDroppedBefore, plugin.getDeliveryQueue().size(),
+                ticks, lateTicks);
+        List<String> lines = report.toLines();
+        for (String line : lines) {
+            plugin.getLogger().info("[LoadTest] " + line);
+        }
+        if (onFinish != null) onFinish.accept(lines);
+    }
+
+    public boolean isRunning() { return running; }
+
+    public LoadProfile getProfile() { return profile; }
+}
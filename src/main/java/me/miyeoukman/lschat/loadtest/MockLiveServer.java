@@ -0,0 +1,298 @@
+package me.miyeoukman.lschat.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import me.miyeoukman.lschat.util.ExecutionScope;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-in for the Chzzk and YouTube services, so a load test exercises
+ * the real clients end to end: live-status polling, emoji packs, access tokens, the chat
+ * WebSocket with its auth and ping handshake, and YouTube page polling.
+ * Everything binds to 127.0.0.1 on ephemeral ports.
+ */
+public class MockLiveServer {
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final String CHAT_CHANNEL_ID = "mock-chat";
+    private static final int FRAME_SIZE = 20;
+    private static final long STEP_MILLIS = 20;
+    private static final long YOUTUBE_POLL_MILLIS = 1000;
+    private static final int YOUTUBE_MAX_PAGE = 2000; // The API never returns more per page
+
+    private final Logger logger;
+    private final LoadProfile profile;
+    private final TrafficGenerator generator;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private ExecutionScope scope;
+    private HttpServer http;
+    private ServerSocket webSocketServer;
+    private volatile boolean running = false;
+
+    // Each platform's share is paced from the moment its client first shows up
+    private long chzzkStartedAt;
+    private long chzzkEmitted;
+    private long youTubeStartedAt;
+    private long youTubeEmitted;
+
+    public MockLiveServer(Logger logger, LoadProfile profile, TrafficGenerator generator) {
+        this.logger = logger;
+        this.profile = profile;
+        this.generator = generator;
+    }
+
+    public void start() throws IOException {
+        running = true;
+        scope = ExecutionScope.open("LSChat-MockServer", 16);
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        http = HttpServer.create(new InetSocketAddress(loopback, 0), 0);
+        http.createContext("/polling/v2/channels/", exchange -> respond(exchange,
+                "{\"code\":200,\"content\":{\"status\":\"OPEN\",\"chatChannelId\":\"" + CHAT_CHANNEL_ID + "\"}}"));
+        http.createContext("/service/v1/channels/", exchange -> respond(exchange,
+                "{\"code\":200,\"content\":{\"emojiPacks\":[{\"emojiPackId\":\"mock\",\"emojiPackName\":\"mock\","
+                        + "\"emojis\":[{\"emojiId\":\"d_12\",\"imageUrl\":\"\"}]}]}}"));
+        http.createContext("/nng_main/v1/chats/access-token", exchange -> respond(exchange,
+                "{\"code\":200,\"content\":{\"accessToken\":\"mock-token\",\"extraToken\":\"\"}}"));
+        http.createContext("/youtube/v3/videos", exchange -> respond(exchange,
+                "{\"items\":[{\"liveStreamingDetails\":{\"activeLiveChatId\":\"mock-live-chat\"}}]}"));
+        http.createContext("/youtube/v3/liveChat/messages", exchange -> respond(exchange, youTubePage()));
+        http.setExecutor(scope.io());
+        http.start();
+
+        webSocketServer = new ServerSocket(0, 50, loopback);
+        scope.io().execute(this::acceptLoop);
+        scope.scheduler().scheduleAtFixedRate(this::pushChzzk, STEP_MILLIS, STEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public String getApiUrl() { return "http://127.0.0.1:" + http.getAddress().getPort(); }
+
+    public String getYouTubeApiUrl() { return getApiUrl() + "/youtube/v3"; }
+
+    public String getChatServerUrl() { return "ws://127.0.0.1:" + webSocketServer.getLocalPort() + "/chat"; }
+
+    public int getClientCount() { return clients.size(); }
+
+    public void stop() {
+        running = false;
+        if (http != null) http.stop(0);
+        try {
+            if (webSocketServer != null) webSocketServer.close();
+        } catch (IOException ignored) {
+        }
+        for (Client client : clients) {
+            client.close();
+        }
+        if (scope != null) scope.close(1000);
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private synchronized String youTubePage() {
+        long now = System.nanoTime();
+        if (youTubeStartedAt == 0) youTubeStartedAt = now;
+        long target = (long) (profile.targetAt((now - youTubeStartedAt) / 1_000_000L) * profile.getYouTubeShare());
+        int count = (int) Math.min(YOUTUBE_MAX_PAGE, target - youTubeEmitted);
+        youTubeEmitted += count;
+        return generator.youTubePage(count, "page-" + youTubeEmitted, YOUTUBE_POLL_MILLIS);
+    }
+
+    private void pushChzzk() {
+        if (!running || clients.isEmpty()) return;
+        try {
+            long now = System.nanoTime();
+            if (chzzkStartedAt == 0) chzzkStartedAt = now;
+            long target = profile.targetAt((now - chzzkStartedAt) / 1_000_000L);
+            long chzzkTarget = target - (long) (target * profile.getYouTubeShare());
+            int due = (int) (chzzkTarget - chzzkEmitted);
+            chzzkEmitted = chzzkTarget;
+            while (due > 0) {
+                int count = Math.min(FRAME_SIZE, due);
+                String frame = generator.chzzkFrame(count);
+                for (Client client : clients) {
+                    if (client.authenticated) client.send(frame);
+                }
+                due -= count;
+            }
+        } catch (RuntimeException e) {
+            logger.warning("Mock server push failed: " + e);
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = webSocketServer.accept();
+                scope.io().execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) logger.warning("Mock chat server accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Client client = null;
+        try {
+            socket.setTcpNoDelay(true);
+            if (!handshake(socket)) {
+                socket.close();
+                return;
+            }
+            client = new Client(socket);
+            clients.add(client);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            while (running) {
+                String text = client.readText(in);
+                if (text == null) break;
+                if (text.contains("\"cmd\":100")) {
+                    client.authenticated = true;
+                    client.send("{\"svcid\":\"game\",\"ver\":\"2\",\"cmd\":10100,\"retCode\":0,\"bdy\":{}}");
+                } else if (text.contains("\"cmd\":0")) {
+                    client.send("{\"ver\":\"2\",\"cmd\":10000}");
+                }
+            }
+        } catch (IOException e) {
+            if (running) logger.fine("Mock chat connection ended: " + e.getMessage());
+        } finally {
+            if (client != null) {
+                clients.remove(client);
+                client.close();
+            }
+        }
+    }
+
+    // Reads the HTTP upgrade request and answers it; we never negotiate extensions
+    private static boolean handshake(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        String key = null;
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        if (key == null) return false;
+        String response = "HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        socket.getOutputStream().write(response.getBytes(StandardCharsets.ISO_8859_1));
+        socket.getOutputStream().flush();
+        return true;
+    }
+
+    // Byte at a time, so nothing past the request headers is consumed
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') return line.toString();
+            if (b != '\r') line.append((char) b);
+            if (line.length() > 8192) throw new IOException("Header line too long");
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** One chat connection; frames to it are written under its lock. */
+    private static final class Client {
+        private final Socket socket;
+        private final OutputStream out;
+        volatile boolean authenticated = false;
+
+        Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = socket.getOutputStream();
+        }
+
+        // Returns the next text message, answering control frames on the way; null once the peer closes
+        String readText(DataInputStream in) throws IOException {
+            while (true) {
+                int first = in.read();
+                if (first < 0) return null;
+                int opcode = first & 0x0F;
+                int second = in.readUnsignedByte();
+                long length = second & 0x7F;
+                if (length == 126) length = in.readUnsignedShort();
+                else if (length == 127) length = in.readLong();
+                if (length > 1 << 20) throw new IOException("Frame too large: " + length);
+                byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) in.readFully(mask);
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i & 3];
+                }
+                switch (opcode) {
+                    case 0x1: return new String(payload, StandardCharsets.UTF_8);
+                    case 0x8: writeFrame(0x8, payload); return null;
+                    case 0x9: writeFrame(0xA, payload); break;
+                    default: break; // Continuation, binary and pong frames are not used by the client
+                }
+            }
+        }
+
+        void send(String text) {
+            try {
+                writeFrame(0x1, text.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private synchronized void writeFrame(int opcode, byte[] payload) throws IOException {
+            byte[] header;
+            if (payload.length < 126) {
+                header = new byte[]{(byte) (0x80 | opcode), (byte) payload.length};
+            } else if (payload.length <= 0xFFFF) {
+                header = new byte[]{(byte) (0x80 | opcode), 126, (byte) (payload.length >>> 8), (byte) payload.length};
+            } else {
+                header = new byte[10];
+                header[0] = (byte) (0x80 | opcode);
+                header[1] = 127;
+                for (int i = 0; i < 8; i++) {
+                    header[9 - i] = (byte) ((long) payload.length >>> (8 * i));
+                }
+            }
+            out.write(header);
+            out.write(payload);
+            out.flush();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
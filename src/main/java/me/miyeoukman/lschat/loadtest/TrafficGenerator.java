@@ -0,0 +1,130 @@
+package me.miyeoukman.lschat.loadtest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import me.miyeoukman.lschat.journal.JournalRecord;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds wire-format Chzzk frames and YouTube message pages, so generated load
+ * goes through the same decoders as real traffic. Messages are synthetic, or
+ * cycled from journal records when replaying captured traffic.
+ */
+public class TrafficGenerator {
+    private static final String[] PHRASES = {
+            "ㅋㅋㅋㅋㅋ", "안녕하세요", "gg", "와 대박", "이게 되네", "first time here", "{:d_12:}{:d_12:}",
+            "오늘 방송 재밌네요", "LOL", "ㄷㄷ", "방금 그거 뭐에요?", "hello from the stream"
+    };
+    private static final int SENDERS = 500;
+
+    private final int donationEvery;
+    private final List<JournalRecord> replay; // null for synthetic traffic
+    private final AtomicLong sequence = new AtomicLong();
+
+    public TrafficGenerator(int donationEvery, List<JournalRecord> replay) {
+        this.donationEvery = Math.max(0, donationEvery);
+        this.replay = replay == null || replay.isEmpty() ? null : replay;
+    }
+
+    /** A Chzzk chat frame (cmd 93101) carrying {@code count} messages. */
+    public String chzzkFrame(int count) {
+        JsonArray body = new JsonArray();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            Next next = next();
+            JsonObject profile = new JsonObject();
+            profile.addProperty("userIdHash", next.userId);
+            profile.addProperty("nickname", next.sender);
+            profile.addProperty("userRoleCode", "common_user");
+            JsonObject extras = new JsonObject();
+            extras.addProperty("chatType", "STREAMING");
+            if (next.donation) extras.addProperty("payAmount", (int) next.amount);
+
+            JsonObject entry = new JsonObject();
+            entry.addProperty("uid", next.userId);
+            entry.addProperty("profile", profile.toString());
+            entry.addProperty("msg", next.message);
+            entry.addProperty("msgTypeCode", next.donation ? 10 : 1);
+            entry.addProperty("extras", extras.toString());
+            entry.addProperty("msgTime", now);
+            body.add(entry);
+        }
+        JsonObject frame = new JsonObject();
+        frame.addProperty("svcid", "game");
+        frame.addProperty("ver", "1");
+        frame.add("bdy", body);
+        frame.addProperty("cmd", 93101);
+        return frame.toString();
+    }
+
+    /** A YouTube liveChatMessages page carrying {@code count} messages. */
+    public String youTubePage(int count, String nextPageToken, long pollingIntervalMillis) {
+        JsonArray items = new JsonArray();
+        String publishedAt = java.time.Instant.now().toString();
+        for (int i = 0; i < count; i++) {
+            Next next = next();
+            JsonObject snippet = new JsonObject();
+            snippet.addProperty("publishedAt", publishedAt);
+            if (next.donation) {
+                snippet.addProperty("type", "superChatEvent");
+                JsonObject details = new JsonObject();
+                details.addProperty("amountDisplayString", "₩" + (long) next.amount);
+                details.addProperty("userComment", next.message);
+                snippet.add("superChatDetails", details);
+            } else {
+                snippet.addProperty("type", "textMessageEvent");
+                snippet.addProperty("displayMessage", next.message);
+            }
+            JsonObject author = new JsonObject();
+            author.addProperty("channelId", "UC" + next.userId);
+            author.addProperty("displayName", "@" + next.sender);
+            JsonObject item = new JsonObject();
+            item.add("snippet", snippet);
+            item.add("authorDetails", author);
+            items.add(item);
+        }
+        JsonObject page = new JsonObject();
+        page.addProperty("pollingIntervalMillis", pollingIntervalMillis);
+        page.addProperty("nextPageToken", nextPageToken);
+        page.add("items", items);
+        return page.toString();
+    }
+
+    public long getGenerated() { return sequence.get(); }
+
+    private Next next() {
+        long n = sequence.incrementAndGet();
+        boolean donation = donationEvery > 0 && n % donationEvery == 0;
+        if (replay != null) {
+            JournalRecord record = replay.get((int) (n % replay.size()));
+            boolean replayedDonation = record.getType() == JournalRecord.Type.DONATION;
+            return new Next(Integer.toHexString(record.getSender().hashCode()), record.getSender(), record.getMessage(),
+                    replayedDonation, replayedDonation ? record.getAmount() : 0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = random.nextInt(SENDERS);
+        String message = PHRASES[random.nextInt(PHRASES.length)];
+        if (random.nextInt(4) == 0) message += " " + n; // Some unique lines, so duplicate folding is not the whole story
+        return new Next(String.format("%032x", user), "viewer_" + user, message, donation,
+                donation ? 1000 * (1 + random.nextInt(random.nextInt(20) == 0 ? 100 : 10)) : 0);
+    }
+
+    private static final class Next {
+        final String userId;
+        final String sender;
+        final String message;
+        final boolean donation;
+        final double amount;
+
+        Next(String userId, String sender, String message, boolean donation, double amount) {
+            this.userId = userId;
+            this.sender = sender;
+            this.message = message;
+            this.donation = donation;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package me.miyeoukman.lschat.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram (HDR style) of latencies in microseconds.
+ * Values below 32us get exact buckets, above that every power of two is split
+ * into 16 buckets, so any recorded value is off by at most ~6%.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR = 32;
+    private static final int SUB_BUCKETS = 16;
+    private static final int MAX_MSB = 40; // ~12.7 days, anything larger is clamped
+    private static final int BUCKETS = LINEAR + (MAX_MSB - 4) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000L);
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() { return count.sum(); }
+
+    public long getSumMicros() { return sum.sum(); }
+
+    public long getMaxMicros() { return max.get(); }
+
+    /** Upper bound (in microseconds) of the bucket holding the given quantile, 0 if empty. */
+    public long percentileMicros(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) return i == BUCKETS - 1 ? getMaxMicros() : Math.min(upperBoundOf(i), getMaxMicros());
+        }
+        return getMaxMicros();
+    }
+
+    /** A copy of everything recorded so far, to pass to {@link #since} later. */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram copy = new LatencyHistogram(name);
+        for (int i = 0; i < BUCKETS; i++) copy.counts.set(i, counts.get(i));
+        copy.count.add(count.sum());
+        copy.sum.add(sum.sum());
+        copy.max.set(max.get());
+        return copy;
+    }
+
+    /**
+     * What was recorded after {@code earlier} was snapshotted from this histogram.
+     * Its max is the upper bound of the highest bucket that grew.
+     */
+    public LatencyHistogram since(LatencyHistogram earlier) {
+        LatencyHistogram delta = new LatencyHistogram(name);
+        long total = 0;
+        int highest = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            long added = Math.max(0, counts.get(i) - earlier.counts.get(i));
+            delta.counts.set(i, added);
+            total += added;
+            if (added > 0) highest = i;
+        }
+        delta.count.add(total);
+        delta.sum.add(Math.max(0, sum.sum() - earlier.sum.sum()));
+        if (highest >= 0) delta.max.set(highest == BUCKETS - 1 ? max.get() : Math.min(upperBoundOf(highest), max.get()));
+        return delta;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) return (int) value;
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        if (msb > MAX_MSB) return BUCKETS - 1;
+        int mantissa = (int) (value >>> (msb - 4)); // 16..31
+        return LINEAR + (msb - 5) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < LINEAR) return index;
+        int msb = (index - LINEAR) / SUB_BUCKETS + 5;
+        int mantissa = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((long) (mantissa + 1) << (msb - 4)) - 1;
+    }
+}
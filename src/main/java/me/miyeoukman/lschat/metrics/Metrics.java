@@ -0,0 +1,44 @@
+package me.miyeoukman.lschat.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pipeline instrumentation shared by every stage. All timestamps are
+ * {@link System#nanoTime()} taken when the frame (or page) was received.
+ */
+public final class Metrics {
+    /** Frame receipt until every LSChat event listener has run. */
+    public static final LatencyHistogram DISPATCH = new LatencyHistogram("dispatch");
+    /** Frame receipt until the main thread picks the line up. */
+    public static final LatencyHistogram QUEUE_WAIT = new LatencyHistogram("queue_wait");
+    /** Sending one line to every viewer on the main thread. */
+    public static final LatencyHistogram FAN_OUT = new LatencyHistogram("fan_out");
+    /** Frame receipt until the line has been sent to every viewer. */
+    public static final LatencyHistogram END_TO_END = new LatencyHistogram("end_to_end");
+
+    private static final LatencyHistogram[] HISTOGRAMS = {DISPATCH, QUEUE_WAIT, FAN_OUT, END_TO_END};
+    private static final Map<String, PlatformCounters> PLATFORMS = new ConcurrentHashMap<>();
+
+    private Metrics() {}
+
+    public static PlatformCounters platform(String name) {
+        PlatformCounters counters = PLATFORMS.get(name);
+        return counters != null ? counters : PLATFORMS.computeIfAbsent(name, PlatformCounters::new);
+    }
+
+    public static Collection<PlatformCounters> platforms() {
+        return Collections.unmodifiableCollection(PLATFORMS.values());
+    }
+
+    public static LatencyHistogram[] histograms() {
+        return HISTOGRAMS.clone();
+    }
+
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS) histogram.reset();
+        for (PlatformCounters counters : PLATFORMS.values()) counters.reset();
+    }
+}
@@ -0,0 +1,78 @@
+package me.miyeoukman.lschat.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-platform ingest counters, plus a one-minute sliding window of message
+ * arrivals for a messages-per-second figure.
+ */
+public class PlatformCounters {
+    private static final int WINDOW_SECONDS = 60;
+
+    private final String platform;
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder donations = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final LongAdder parseErrors = new LongAdder();
+
+    // Slot i counts arrivals during the epoch second stored in slotSeconds[i]
+    private final AtomicLongArray slotCounts = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray slotSeconds = new AtomicLongArray(WINDOW_SECONDS);
+
+    PlatformCounters(String platform) {
+        this.platform = platform;
+    }
+
+    public String getPlatform() { return platform; }
+
+    public void message() {
+        messages.increment();
+        tick();
+    }
+
+    public void donation() {
+        donations.increment();
+        tick();
+    }
+
+    public void drop() { drops.increment(); }
+
+    public void parseError() { parseErrors.increment(); }
+
+    public long getMessages() { return messages.sum(); }
+    public long getDonations() { return donations.sum(); }
+    public long getDrops() { return drops.sum(); }
+    public long getParseErrors() { return parseErrors.sum(); }
+
+    /** Average arrivals per second over the last minute. */
+    public double getPerSecond() {
+        long now = System.currentTimeMillis() / 1000L;
+        long total = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (now - slotSeconds.get(i) < WINDOW_SECONDS) total += slotCounts.get(i);
+        }
+        return total / (double) WINDOW_SECONDS;
+    }
+
+    private void tick() {
+        long second = System.currentTimeMillis() / 1000L;
+        int slot = (int) (second % WINDOW_SECONDS);
+        long slotSecond = slotSeconds.get(slot);
+        if (slotSecond != second && slotSeconds.compareAndSet(slot, slotSecond, second)) {
+            slotCounts.set(slot, 0); // First arrival of a new second recycles the slot
+        }
+        slotCounts.incrementAndGet(slot);
+    }
+
+    void reset() {
+        messages.reset();
+        donations.reset();
+        drops.reset();
+        parseErrors.reset();
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            slotCounts.set(i, 0);
+            slotSeconds.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package me.miyeoukman.lschat.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Renders {@link Metrics} in the Prometheus text format, either to a file that
+ * is rewritten periodically or on a local-only /metrics endpoint.
+ */
+public class PrometheusExporter {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final Supplier<String> extra; // Gauges owned by the plugin (queue size, viewers, ...)
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    public PrometheusExporter(Supplier<String> extra) {
+        this.extra = extra;
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder(2048);
+        counter(sb, "lschat_messages_total", "Chat messages received");
+        for (PlatformCounters c : Metrics.platforms()) sample(sb, "lschat_messages_total", c, c.getMessages());
+        counter(sb, "lschat_donations_total", "Donations received");
+        for (PlatformCounters c : Metrics.platforms()) sample(sb, "lschat_donations_total", c, c.getDonations());
+        counter(sb, "lschat_drops_total", "Lines dropped before delivery");
+        for (PlatformCounters c : Metrics.platforms()) sample(sb, "lschat_drops_total", c, c.getDrops());
+        counter(sb, "lschat_parse_errors_total", "Frames or items that could not be decoded");
+        for (PlatformCounters c : Metrics.platforms()) sample(sb, "lschat_parse_errors_total", c, c.getParseErrors());
+
+        sb.append("# HELP lschat_latency_seconds Pipeline stage latency\n");
+        sb.append("# TYPE lschat_latency_seconds summary\n");
+        for (LatencyHistogram h : Metrics.histograms()) {
+            for (double q : QUANTILES) {
+                sb.append("lschat_latency_seconds{stage=\"").append(h.getName()).append("\",quantile=\"").append(q).append("\"} ")
+                        .append(seconds(h.percentileMicros(q))).append('\n');
+            }
+            sb.append("lschat_latency_seconds_sum{stage=\"").append(h.getName()).append("\"} ").append(seconds(h.getSumMicros())).append('\n');
+            sb.append("lschat_latency_seconds_count{stage=\"").append(h.getName()).append("\"} ").append(h.getCount()).append('\n');
+        }
+        sb.append(extra.get());
+        return sb.toString();
+    }
+
+    /** Writes atomically, so a scraper never sees a half-written file. */
+    public void writeTo(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        Files.writeString(temp.toPath(), render(), StandardCharsets.UTF_8);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Serves /metrics on 127.0.0.1 only. */
+    public void startHttp(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        serverExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "LSChat-Metrics-HTTP");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            serverExecutor.shutdown();
+            server = null;
+        }
+    }
+
+    private static void counter(StringBuilder sb, String name, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" counter\n");
+    }
+
+    private static void sample(StringBuilder sb, String name, PlatformCounters c, long value) {
+        sb.append(name).append("{platform=\"").append(c.getPlatform()).append("\"} ").append(value).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+}
@@ -0,0 +1,33 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+/**
+ * One element of a 93101/93102 frame body, undecoded: {@code profile} and
+ * {@code extras} are kept as the JSON strings Chzzk embeds them as. Instances
+ * are owned and recycled by {@link ChzzkFrameDecoder}, so they are only valid
+ * until the next decode call.
+ */
+public class ChzzkChatEntry {
+    String uid;
+    String profile;
+    String msg;
+    String extras;
+    int msgTypeCode;
+    long msgTime;
+
+    void reset() {
+        uid = null;
+        profile = null;
+        msg = "";
+        extras = null;
+        msgTypeCode = 1;
+        msgTime = 0;
+    }
+
+    public boolean hasProfile() { return profile != null; }
+    public String getUid() { return uid; }
+    public String getProfile() { return profile; }
+    public String getMsg() { return msg; }
+    public String getExtras() { return extras; }
+    public int getMsgTypeCode() { return msgTypeCode; }
+    public long getMsgTime() { return msgTime; }
+}
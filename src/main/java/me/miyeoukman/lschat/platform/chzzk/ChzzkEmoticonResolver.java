@@ -0,0 +1,203 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.miyeoukman.lschat.util.HttpUtil;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Replaces Chzzk emoticon codes ({@code {:d_12:}}) with resource-pack glyphs or
+ * short text. Each channel's emoji packs are fetched once in the background and
+ * kept in a bounded cache that refreshes after a while, so resolving a message
+ * is a map lookup per code. A message that arrives before its channel's packs
+ * still resolves the codes listed in its own extras; it never waits for a fetch.
+ */
+public class ChzzkEmoticonResolver {
+    private static final long FAILURE_RETRY_MILLIS = 60_000;
+
+    /** A channel's codes mapped to their replacement text, until {@code expiresAt}. */
+    private static final class Pack {
+        final Map<String, String> replacements;
+        final long expiresAt;
+
+        Pack(Map<String, String> replacements, long expiresAt) {
+            this.replacements = replacements;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final ChzzkEndpoints endpoints;
+    private final Logger logger;
+    private final Map<String, Pack> packs = new ConcurrentHashMap<>();
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    // Bumped by configure; a fetch that started under an older config is discarded
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private volatile boolean enabled = true;
+    private volatile Map<String, String> glyphs = Collections.emptyMap();
+    private volatile String fallbackFormat = "[{name}]";
+    private volatile int maxChannels = 64;
+    private volatile long ttlMillis = 60 * 60_000L;
+
+    public ChzzkEmoticonResolver(ChzzkEndpoints endpoints, Logger logger) {
+        this.endpoints = endpoints;
+        this.logger = logger;
+    }
+
+    /** Applies {@code platforms.chzzk.emoticons}; cached packs are rebuilt with the new glyphs as they are fetched again. */
+    public void configure(ConfigurationSection section) {
+        Map<String, String> newGlyphs = new HashMap<>();
+        ConfigurationSection glyphSection = section == null ? null : section.getConfigurationSection("glyphs");
+        if (glyphSection != null) {
+            for (String code : glyphSection.getKeys(false)) {
+                String glyph = glyphSection.getString(code);
+                if (glyph != null) newGlyphs.put(code, glyph);
+            }
+        }
+        glyphs = newGlyphs;
+        enabled = section == null || section.getBoolean("enabled", true);
+        fallbackFormat = section == null ? "[{name}]" : section.getString("fallback", "[{name}]");
+        maxChannels = Math.max(1, section == null ? 64 : section.getInt("cache-size", 64));
+        ttlMillis = 60_000L * Math.max(1, section == null ? 60 : section.getInt("cache-minutes", 60));
+        generation.incrementAndGet();
+        packs.clear();
+        loading.clear();
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /** Starts loading a channel's packs if they are missing or stale, without waiting. */
+    public void prefetch(String channelId) {
+        if (enabled) packFor(channelId);
+    }
+
+    /**
+     * Resolves every known code in {@code message}. Codes that are in neither the
+     * channel's packs nor {@code messageEmojis} are left as typed.
+     */
+    public String resolve(String channelId, String message, Map<String, String> messageEmojis) {
+        int start = message.indexOf("{:");
+        if (!enabled || start < 0) return message;
+        Pack pack = packFor(channelId);
+
+        StringBuilder out = new StringBuilder(message.length());
+        int copied = 0;
+        while (start >= 0) {
+            int end = message.indexOf(":}", start + 2);
+            if (end < 0) break;
+            String code = message.substring(start + 2, end);
+            String replacement = pack == null ? null : pack.replacements.get(code);
+            if (replacement == null && messageEmojis.containsKey(code)) replacement = replacementFor(code, "");
+            if (replacement != null) {
+                out.append(message, copied, start).append(replacement);
+                copied = end + 2;
+                start = message.indexOf("{:", copied);
+            } else {
+                start = message.indexOf("{:", start + 2);
+            }
+        }
+        if (copied == 0) return message;
+        return out.append(message, copied, message.length()).toString();
+    }
+
+    /** Text for an emoticon-only chat, built from the codes the message carries. */
+    public String resolveOnly(String channelId, Map<String, String> messageEmojis) {
+        if (!enabled || messageEmojis.isEmpty()) return null;
+        StringBuilder codes = new StringBuilder();
+        for (String code : messageEmojis.keySet()) {
+            codes.append("{:").append(code).append(":}");
+        }
+        return resolve(channelId, codes.toString(), messageEmojis);
+    }
+
+    public int getCachedChannels() { return packs.size(); }
+
+    private Pack packFor(String channelId) {
+        Pack pack = packs.get(channelId);
+        if ((pack == null || System.currentTimeMillis() >= pack.expiresAt) && loading.add(channelId)) {
+            load(channelId);
+        }
+        return pack; // Stale packs keep serving until the refresh lands
+    }
+
+    private void load(String channelId) {
+        int loadGeneration = generation.get();
+        HttpUtil.getAsync(endpoints.emojiPacks(channelId), JsonParser::parseReader).whenComplete((json, error) -> {
+            if (generation.get() != loadGeneration) return; // configure already reset packs and loading
+            try {
+                if (error != null) {
+                    logger.fine("Failed to load Chzzk emoticons (" + channelId + "): " + error.getMessage());
+                    // Remember the miss for a while instead of asking again on every message
+                    Pack previous = packs.get(channelId);
+                    store(channelId, new Pack(previous != null ? previous.replacements : Collections.emptyMap(),
+                            System.currentTimeMillis() + FAILURE_RETRY_MILLIS), loadGeneration);
+                    return;
+                }
+                store(channelId, new Pack(readPacks(json), System.currentTimeMillis() + ttlMillis), loadGeneration);
+            } finally {
+                if (generation.get() == loadGeneration) loading.remove(channelId);
+            }
+        });
+    }
+
+    private void store(String channelId, Pack pack, int loadGeneration) {
+        packs.put(channelId, pack);
+        if (generation.get() != loadGeneration) {
+            // configure ran while this was being built
+            packs.remove(channelId, pack);
+            return;
+        }
+        while (packs.size() > maxChannels) {
+            // Few channels per server, so a scan for the oldest entry is cheap
+            String oldest = null;
+            long oldestExpiry = Long.MAX_VALUE;
+            for (Map.Entry<String, Pack> entry : packs.entrySet()) {
+                if (entry.getValue().expiresAt < oldestExpiry && !entry.getKey().equals(channelId)) {
+                    oldest = entry.getKey();
+                    oldestExpiry = entry.getValue().expiresAt;
+                }
+            }
+            if (oldest == null) break;
+            packs.remove(oldest);
+        }
+    }
+
+    // content.{emojiPacks,subscriptionEmojiPacks,...}[].emojis[].emojiId, one map for all of them
+    private Map<String, String> readPacks(JsonElement json) {
+        Map<String, String> replacements = new HashMap<>();
+        JsonElement content = json.isJsonObject() ? json.getAsJsonObject().get("content") : null;
+        if (content == null || !content.isJsonObject()) return replacements;
+        for (Map.Entry<String, JsonElement> group : content.getAsJsonObject().entrySet()) {
+            if (!group.getValue().isJsonArray()) continue;
+            for (JsonElement packElement : group.getValue().getAsJsonArray()) {
+                if (!packElement.isJsonObject()) continue;
+                JsonObject pack = packElement.getAsJsonObject();
+                String packName = pack.has("emojiPackName") && !pack.get("emojiPackName").isJsonNull()
+                        ? pack.get("emojiPackName").getAsString() : "";
+                JsonElement emojis = pack.get("emojis");
+                if (emojis == null || !emojis.isJsonArray()) continue;
+                for (JsonElement emoji : emojis.getAsJsonArray()) {
+                    if (!emoji.isJsonObject() || !emoji.getAsJsonObject().has("emojiId")) continue;
+                    String code = emoji.getAsJsonObject().get("emojiId").getAsString();
+                    replacements.put(code, replacementFor(code, packName));
+                }
+            }
+        }
+        return replacements;
+    }
+
+    private String replacementFor(String code, String packName) {
+        String glyph = glyphs.get(code);
+        if (glyph != null) return glyph;
+        return fallbackFormat.replace("{name}", code).replace("{pack}", packName);
+    }
+}
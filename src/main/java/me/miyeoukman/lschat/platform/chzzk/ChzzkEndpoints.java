@@ -0,0 +1,60 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Base URLs used by a Chzzk connection. Defaults to the live service; can be
+ * pointed at a local mock server through {@code platforms.chzzk.endpoints}.
+ */
+public class ChzzkEndpoints {
+    private static final String DEFAULT_API = "https://api.chzzk.naver.com";
+    private static final String DEFAULT_CHAT_API = "https://comm-api.game.naver.com";
+    private static final String DEFAULT_CHAT_SERVER = "wss://kr-ss{shard}.chat.naver.com/chat";
+
+    private final String api;
+    private final String chatApi;
+    private final String chatServer;
+
+    public ChzzkEndpoints(String api, String chatApi, String chatServer) {
+        this.api = stripSlash(api);
+        this.chatApi = stripSlash(chatApi);
+        this.chatServer = chatServer;
+    }
+
+    public static ChzzkEndpoints fromConfig(ConfigurationSection section) {
+        if (section == null) return new ChzzkEndpoints(DEFAULT_API, DEFAULT_CHAT_API, DEFAULT_CHAT_SERVER);
+        return new ChzzkEndpoints(
+                section.getString("api", DEFAULT_API),
+                section.getString("chat-api", DEFAULT_CHAT_API),
+                section.getString("chat-server", DEFAULT_CHAT_SERVER));
+    }
+
+    public String liveStatus(String channelId) {
+        return api + "/polling/v2/channels/" + channelId + "/live-status";
+    }
+
+    public String emojiPacks(String channelId) {
+        return api + "/service/v1/channels/" + channelId + "/emoji-packs";
+    }
+
+    public String accessToken(String chatChannelId) {
+        return chatApi + "/nng_main/v1/chats/access-token?channelId=" + chatChannelId + "&chatType=STREAMING";
+    }
+
+    /** Chat server for a chat channel, using the same shard pick as the official web client. */
+    public String chatServer(String chatChannelId) {
+        return chatServer.replace("{shard}", String.valueOf(shardOf(chatChannelId)));
+    }
+
+    static int shardOf(String chatChannelId) {
+        int sum = 0;
+        for (int i = 0; i < chatChannelId.length(); i++) {
+            sum += chatChannelId.charAt(i);
+        }
+        return Math.abs(sum) % 9 + 1;
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
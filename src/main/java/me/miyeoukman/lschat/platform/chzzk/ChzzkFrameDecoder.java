@@ -0,0 +1,162 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-pass, tree-free decoder for Chzzk WebSocket frames. Only pulls out
+ * {@code cmd}, and for each body entry {@code uid}, {@code msg}, {@code msgTypeCode},
+ * {@code msgTime} and the raw {@code profile}/{@code extras} strings; everything
+ * else is skipped. The embedded profile is left to {@link ChzzkRawMessage} to
+ * decode if someone asks for it; extras only for a donation's payAmount.
+ * <p>
+ * One decoder per connection: it is not thread-safe, and the entries it returns
+ * are reused by the next {@link #decode} call.
+ */
+public class ChzzkFrameDecoder {
+    public static final int MALFORMED = -1;
+
+    private final List<ChzzkChatEntry> entries = new ArrayList<>();
+    private int entryCount;
+    private final ReusableStringReader frameReader = new ReusableStringReader();
+    private final ReusableStringReader nestedReader = new ReusableStringReader();
+    private final AtomicLong malformedFrames = new AtomicLong();
+
+    /**
+     * Decodes a frame and returns its {@code cmd}, 0 if the frame has none, or
+     * {@link #MALFORMED}. Body entries are available through {@link #entry(int)}.
+     */
+    public int decode(String frame) {
+        entryCount = 0;
+        int cmd = 0;
+        frameReader.reset(frame);
+        try {
+            JsonReader reader = new JsonReader(frameReader);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("cmd") && reader.peek() == JsonToken.NUMBER) {
+                    cmd = reader.nextInt();
+                } else if (name.equals("bdy") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    readBody(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return cmd;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            entryCount = 0;
+            malformedFrames.incrementAndGet();
+            return MALFORMED;
+        }
+    }
+
+    public int entryCount() { return entryCount; }
+
+    public ChzzkChatEntry entry(int index) { return entries.get(index); }
+
+    public long getMalformedFrames() { return malformedFrames.get(); }
+
+    private void readBody(JsonReader reader) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            readEntry(reader, nextEntry());
+        }
+        reader.endArray();
+    }
+
+    private ChzzkChatEntry nextEntry() {
+        if (entryCount == entries.size()) {
+            entries.add(new ChzzkChatEntry());
+        }
+        ChzzkChatEntry entry = entries.get(entryCount++);
+        entry.reset();
+        return entry;
+    }
+
+    private void readEntry(JsonReader reader, ChzzkChatEntry entry) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "uid" -> entry.uid = reader.nextString();
+                case "msg" -> entry.msg = reader.nextString();
+                case "msgTypeCode" -> entry.msgTypeCode = reader.nextInt();
+                case "msgTime" -> entry.msgTime = reader.nextLong();
+                case "profile" -> entry.profile = token == JsonToken.STRING ? reader.nextString() : skip(reader, "{}");
+                case "extras" -> entry.extras = token == JsonToken.STRING ? reader.nextString() : skip(reader, null);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static String skip(JsonReader reader, String replacement) throws IOException {
+        reader.skipValue();
+        return replacement;
+    }
+
+    /** A donation's payAmount from its extras, or -1 if there is none. */
+    public int readPayAmount(ChzzkChatEntry entry) {
+        if (entry.extras == null) return -1;
+        try {
+            JsonReader reader = nested(entry.extras);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("payAmount") && reader.peek() == JsonToken.NUMBER) {
+                    return reader.nextInt();
+                }
+                reader.skipValue();
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // No usable payAmount
+        }
+        return -1;
+    }
+
+    private JsonReader nested(String json) {
+        nestedReader.reset(json);
+        return new JsonReader(nestedReader);
+    }
+
+    /** StringReader without synchronization that can be pointed at a new string. */
+    private static final class ReusableStringReader extends Reader {
+        private String source = "";
+        private int position;
+
+        void reset(String source) {
+            this.source = source;
+            this.position = 0;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int remaining = source.length() - position;
+            if (remaining <= 0) return -1;
+            int count = Math.min(remaining, length);
+            source.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.miyeoukman.lschat.Main;
+import me.miyeoukman.lschat.util.HttpUtil;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the lightweight live-status endpoint for every channel of a manager and
+ * tells a channel only when it goes live or ends. Each channel's timer is phase
+ * shifted by its ID, so polls spread evenly across the interval instead of
+ * bursting together; repeats go through HttpUtil's cache, which revalidates
+ * with conditional requests whenever the API hands out validators.
+ */
+class ChzzkLiveWatcher {
+    private static final long STARTUP_SPREAD_MILLIS = 3000; // First checks, spread so a restart is not a burst either
+
+    private final Main plugin;
+    private final ChzzkManager manager;
+    private final long intervalMillis;
+    private final Map<String, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> warned = ConcurrentHashMap.newKeySet();
+
+    ChzzkLiveWatcher(Main plugin, ChzzkManager manager, long intervalMillis) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.intervalMillis = Math.max(1000, intervalMillis);
+    }
+
+    void watch(ChzzkPlatform platform) {
+        String channelId = platform.getChannelId();
+        long phase = Math.floorMod(channelId.hashCode(), intervalMillis);
+        manager.getScheduler().schedule(() -> poll(platform),
+                phase * Math.min(STARTUP_SPREAD_MILLIS, intervalMillis) / intervalMillis, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> timer = manager.getScheduler().scheduleAtFixedRate(() -> poll(platform),
+                phase + intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = timers.put(channelId, timer);
+        if (previous != null) previous.cancel(false);
+    }
+
+    void unwatch(ChzzkPlatform platform) {
+        ScheduledFuture<?> timer = timers.remove(platform.getChannelId());
+        if (timer != null) timer.cancel(false);
+        warned.remove(platform.getChannelId());
+    }
+
+    long getIntervalMillis() { return intervalMillis; }
+
+    private void poll(ChzzkPlatform platform) {
+        String channelId = platform.getChannelId();
+        // A slow response must not stack another request behind it
+        if (!platform.isRunning() || !inFlight.add(channelId)) return;
+        HttpUtil.getAsync(manager.getEndpoints().liveStatus(channelId), JsonParser::parseReader)
+                .whenComplete((json, error) -> {
+                    inFlight.remove(channelId);
+                    if (error != null) {
+                        plugin.getLogger().fine("Chzzk live-status check failed (" + channelId + "): " + error.getMessage());
+                        return;
+                    }
+                    try {
+                        handleStatus(platform, json);
+                    } catch (RuntimeException e) {
+                        // An unexpected response shape would otherwise vanish into the discarded future
+                        plugin.getLogger().warning("Chzzk live-status handling failed (" + channelId + "): " + e);
+                    }
+                });
+    }
+
+    private void handleStatus(ChzzkPlatform platform, JsonElement response) {
+        JsonElement content = response.isJsonObject() ? response.getAsJsonObject().get("content") : null;
+        if (content == null || !content.isJsonObject()) {
+            if (warned.add(platform.getChannelId())) {
+                plugin.getLogger().warning("Chzzk channel not found (" + platform.getChannelId() + "). Response: " + response);
+            }
+            return;
+        }
+        JsonObject status = content.getAsJsonObject();
+        boolean open = status.has("status") && "OPEN".equals(status.get("status").getAsString());
+        String chatChannelId = status.has("chatChannelId") && !status.get("chatChannelId").isJsonNull()
+                ? status.get("chatChannelId").getAsString() : null;
+        platform.onLiveStatus(open && chatChannelId != null, chatChannelId);
+    }
+}
@@ -0,0 +1,174 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import me.miyeoukman.lschat.Main;
+import me.miyeoukman.lschat.platform.LivePlatform;
+import me.miyeoukman.lschat.util.ExecutionScope;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs any number of Chzzk channels over one OkHttp client, dispatcher,
+ * connection pool and ping scheduler. Channels can be started and stopped
+ * individually; {@link #stop()} tears down the shared resources.
+ */
+public class ChzzkManager implements LivePlatform {
+    private static final int MAX_REQUESTS = 256; // Also the most channels one manager runs
+    private static final int POOL_MARGIN = 8; // Sockets that overlap while a channel reconnects
+
+    private final Main plugin;
+    private final List<String> configuredChannels;
+    private final ChzzkEndpoints endpoints;
+    private final long reconnectInitialDelayMillis;
+    private final long reconnectMaxDelayMillis;
+    private final long heartbeatIntervalMillis;
+    private final long idleTimeoutMillis;
+    private final ChzzkLiveWatcher liveWatcher;
+    private final ChzzkEmoticonResolver emoticons;
+    private final ChzzkProfileCache profiles;
+    private final Map<String, ChzzkPlatform> channels = new ConcurrentHashMap<>();
+
+    private final ExecutionScope scope;
+    private final OkHttpClient client;
+    private volatile boolean running = false;
+
+    public ChzzkManager(Main plugin, List<String> channelIds, ConfigurationSection config) {
+        this.plugin = plugin;
+        this.configuredChannels = new ArrayList<>(channelIds);
+        this.endpoints = ChzzkEndpoints.fromConfig(config == null ? null : config.getConfigurationSection("endpoints"));
+        this.reconnectInitialDelayMillis = config == null ? 1000L : config.getLong("reconnect.initial-delay-ms", 1000L);
+        this.reconnectMaxDelayMillis = config == null ? 60000L : config.getLong("reconnect.max-delay-ms", 60000L);
+        this.heartbeatIntervalMillis = 1000L * Math.max(1, config == null ? 20 : config.getInt("heartbeat.interval-seconds", 20));
+        this.idleTimeoutMillis = 1000L * Math.max(1, config == null ? 60 : config.getInt("heartbeat.idle-timeout-seconds", 60));
+        this.liveWatcher = new ChzzkLiveWatcher(plugin, this,
+                1000L * (config == null ? 30 : config.getInt("live-check-interval-seconds", 30)));
+        this.emoticons = new ChzzkEmoticonResolver(endpoints, plugin.getLogger());
+        emoticons.configure(config == null ? null : config.getConfigurationSection("emoticons"));
+        // Shared by every channel, so a viewer who watches several streams is decoded once
+        this.profiles = new ChzzkProfileCache(config == null ? 10000 : config.getInt("profile-cache.max-users", 10000),
+                60_000L * (config == null ? 10 : config.getInt("profile-cache.ttl-minutes", 10)));
+
+        // This client only carries the chat WebSockets; token, status and emoji lookups
+        // go through HttpUtil. Every open socket parks one reader on the I/O executor (a
+        // virtual thread, or in pool mode a pool thread) and keeps its dispatcher slot
+        // for its whole lifetime, so both are sized to the channels and grown as
+        // channels are started.
+        int slots = socketSlots(configuredChannels.size());
+        this.scope = ExecutionScope.open("LSChat-Chzzk", slots);
+        Dispatcher dispatcher = new Dispatcher(scope.io());
+        dispatcher.setMaxRequests(slots);
+        dispatcher.setMaxRequestsPerHost(slots);
+
+        this.client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+                .readTimeout(0, TimeUnit.MILLISECONDS) // Keep-alive; liveness is the connection's own heartbeat
+                .build();
+    }
+
+    @Override
+    public String getName() { return "Chzzk"; }
+
+    @Override
+    public void start() {
+        running = true;
+        for (String channelId : configuredChannels) {
+            startChannel(channelId);
+        }
+    }
+
+    /**
+     * Starts a channel if it is not already connected. Returns false if it was,
+     * or if MAX_REQUESTS channels are already running.
+     */
+    public boolean startChannel(String channelId) {
+        if (!running || channelId == null || channelId.isEmpty()) return false;
+        ChzzkPlatform platform = new ChzzkPlatform(plugin, channelId, this);
+        synchronized (this) {
+            if (channels.containsKey(channelId)) return false;
+            if (channels.size() >= MAX_REQUESTS) {
+                // Past the cap its socket would wait in the dispatcher forever
+                plugin.getLogger().warning("Chzzk channel " + channelId + " not started: " + MAX_REQUESTS
+                        + " channels are already running.");
+                return false;
+            }
+            channels.put(channelId, platform);
+            int slots = socketSlots(channels.size());
+            scope.ensureCapacity(slots);
+            Dispatcher dispatcher = client.dispatcher();
+            if (dispatcher.getMaxRequests() < slots) {
+                dispatcher.setMaxRequests(slots);
+                dispatcher.setMaxRequestsPerHost(slots);
+            }
+        }
+        platform.start();
+        plugin.getLogger().info("Chzzk channel " + channelId + " started.");
+        return true;
+    }
+
+    /** Stops a single channel, leaving the others and the shared client running. */
+    public boolean stopChannel(String channelId) {
+        ChzzkPlatform platform = channels.remove(channelId);
+        if (platform == null) return false;
+        platform.stop();
+        plugin.getLogger().info("Chzzk channel " + channelId + " stopped.");
+        return true;
+    }
+
+    private static int socketSlots(int channelCount) {
+        return Math.min(MAX_REQUESTS, channelCount) + POOL_MARGIN;
+    }
+
+    public Collection<ChzzkPlatform> getChannels() {
+        return Collections.unmodifiableCollection(channels.values());
+    }
+
+    OkHttpClient getClient() { return client; }
+
+    ScheduledExecutorService getScheduler() { return scope.scheduler(); }
+
+    public boolean isVirtualThreads() { return scope.isVirtual(); }
+
+    ChzzkEndpoints getEndpoints() { return endpoints; }
+
+    ChzzkLiveWatcher getLiveWatcher() { return liveWatcher; }
+
+    /** Shared by every channel; reconfigured in place on reload. */
+    public ChzzkEmoticonResolver getEmoticons() { return emoticons; }
+
+    public ChzzkProfileCache getProfiles() { return profiles; }
+
+    long getHeartbeatIntervalMillis() { return heartbeatIntervalMillis; }
+
+    long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+
+    ReconnectBackoff newBackoff() {
+        return new ReconnectBackoff(reconnectInitialDelayMillis, reconnectMaxDelayMillis);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (String channelId : new ArrayList<>(channels.keySet())) {
+            stopChannel(channelId);
+        }
+        client.dispatcher().cancelAll();
+        client.connectionPool().evictAll();
+        if (!scope.close(2000)) {
+            plugin.getLogger().warning("Chzzk I/O tasks did not finish in time and were interrupted.");
+        }
+    }
+
+    @Override
+    public boolean isRunning() { return running; }
+}
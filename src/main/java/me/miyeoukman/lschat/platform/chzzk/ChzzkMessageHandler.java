@@ -0,0 +1,101 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.metrics.PlatformCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns raw Chzzk frames into LSChat events. Kept apart from the socket
+ * lifecycle in {@link ChzzkPlatform} so the ingest path can be driven on its own.
+ */
+public class ChzzkMessageHandler {
+    private final ChzzkFrameDecoder decoder = new ChzzkFrameDecoder(); // One handler per socket, so one thread
+    private final PlatformCounters counters = Metrics.platform(PlatformId.CHZZK.getName());
+    private final LiveEventBus bus;
+    private final String channelId;
+    private final ChzzkEmoticonResolver emoticons; // Null leaves emoticon codes as they are
+    private final ChzzkProfileCache profiles; // Null decodes every profile
+    // Reused per frame; a frame's entries are published as one batch
+    private final List<AsyncLiveChatEvent> chats = new ArrayList<>();
+    private final List<AsyncLiveDonationEvent> donations = new ArrayList<>();
+
+    public ChzzkMessageHandler(LiveEventBus bus) {
+        this(bus, "");
+    }
+
+    public ChzzkMessageHandler(LiveEventBus bus, String channelId) {
+        this(bus, channelId, null, null);
+    }
+
+    public ChzzkMessageHandler(LiveEventBus bus, String channelId, ChzzkEmoticonResolver emoticons, ChzzkProfileCache profiles) {
+        this.bus = bus;
+        this.channelId = channelId;
+        this.emoticons = emoticons;
+        this.profiles = profiles;
+    }
+
+    public int handleFrame(String text) {
+        return handleFrame(text, System.nanoTime());
+    }
+
+    /** Decodes a frame, fires events for its chat entries and returns its cmd. */
+    public int handleFrame(String text, long receivedAtNanos) {
+        int cmd = decoder.decode(text);
+        if (cmd == ChzzkFrameDecoder.MALFORMED) {
+            counters.parseError();
+        } else if (cmd == 93101 || cmd == 93102) { // 93101 is standard for many live chats
+            for (int i = 0; i < decoder.entryCount(); i++) {
+                processMessage(decoder.entry(i), receivedAtNanos);
+            }
+            publish(receivedAtNanos);
+        }
+        return cmd;
+    }
+
+    private void processMessage(ChzzkChatEntry entry, long receivedAtNanos) {
+        if (!entry.hasProfile()) {
+            return;
+        }
+
+        int msgTypeCode = entry.getMsgTypeCode();
+
+        // Handle Chat (Standard=1, but we treat anything not 10 as chat if it has content or is type 1)
+        if (msgTypeCode != 10) {
+            // Emoticon-only messages are empty; the event resolves their codes from extras, or shows "(이모티콘)"
+            if (!entry.getMsg().isEmpty() || msgTypeCode == 1) {
+                counters.message();
+                chats.add(new AsyncLiveChatEvent(PlatformId.CHZZK, channelId, new ChzzkRawMessage(entry, false, channelId, emoticons, profiles), receivedAtNanos));
+            }
+        } else {
+            // Donation (msgTypeCode == 10)
+            int payAmount = decoder.readPayAmount(entry);
+            if (payAmount < 0) return;
+            counters.donation();
+            donations.add(new AsyncLiveDonationEvent(PlatformId.CHZZK, channelId, new ChzzkRawMessage(entry, true, channelId, emoticons, profiles), payAmount, receivedAtNanos));
+        }
+    }
+
+    private void publish(long receivedAtNanos) {
+        int count = chats.size() + donations.size();
+        if (count == 0) return;
+        try {
+            bus.publishAll(AsyncLiveChatEvent.class, chats);
+            bus.publishAll(AsyncLiveDonationEvent.class, donations);
+        } finally {
+            chats.clear();
+            donations.clear();
+        }
+        long dispatchNanos = System.nanoTime() - receivedAtNanos;
+        for (int i = 0; i < count; i++) {
+            Metrics.DISPATCH.recordNanos(dispatchNanos);
+        }
+    }
+
+    public long getMalformedFrames() { return decoder.getMalformedFrames(); }
+}
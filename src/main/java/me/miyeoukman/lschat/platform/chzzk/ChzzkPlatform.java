@@ -1,250 +1,366 @@
 package me.miyeoukman.lschat.platform.chzzk;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import me.miyeoukman.lschat.Main;
-import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
-import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
 import me.miyeoukman.lschat.platform.LivePlatform;
 import me.miyeoukman.lschat.util.HttpUtil;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
-import org.bukkit.Bukkit;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class ChzzkPlatform extends WebSocketListener implements LivePlatform {
+/**
+ * One Chzzk channel. The manager's {@link ChzzkLiveWatcher} reports when the
+ * stream opens or ends; only while it is live does the channel hold a socket.
+ * Whenever that socket drops or the token fetch fails it waits out a jittered
+ * backoff, fetches a new access token (tokens are single use) and reconnects.
+ */
+public class ChzzkPlatform implements LivePlatform {
     private final Main plugin;
     private final String channelId;
-    private boolean running = false;
-    private WebSocket webSocket;
-    private final OkHttpClient client;
+    private final ChzzkManager manager;
+    private volatile boolean running = false;
+    private volatile Connection connection; // Current attempt; callbacks from older ones are ignored
     private final Gson gson = new Gson();
+    private final ChzzkMessageHandler messageHandler;
 
-    private String chatChannelId;
+    private volatile boolean live = false; // Last state reported by the live watcher
+    private volatile String chatChannelId;
     private String accessToken;
     private String extraToken; // Not always needed but good to have context
 
-    public ChzzkPlatform(Main plugin, String channelId) {
+    // Connection supervision
+    private final ReconnectBackoff backoff;
+    private final AtomicBoolean reconnectPending = new AtomicBoolean();
+    private final AtomicInteger reconnects = new AtomicInteger();
+    private volatile boolean connected = false;
+    private volatile long disconnectedAt = 0; // 0 while connected or before the first connection
+    private volatile long totalDowntimeMillis = 0;
+
+    // Heartbeat metrics, across connections
+    private final AtomicInteger pingsSent = new AtomicInteger();
+    private final AtomicInteger pongsReceived = new AtomicInteger();
+    private final AtomicInteger idleReconnects = new AtomicInteger();
+    private volatile long lastRttMillis = -1;
+
+    public ChzzkPlatform(Main plugin, String channelId, ChzzkManager manager) {
         this.plugin = plugin;
         this.channelId = channelId;
-        this.client = new OkHttpClient.Builder()
-                .readTimeout(0, TimeUnit.MILLISECONDS) // Keep-alive
-                .pingInterval(20, TimeUnit.SECONDS) // Auto ping
-                .build();
+        this.manager = manager;
+        this.backoff = manager.newBackoff();
+        this.messageHandler = new ChzzkMessageHandler(plugin.getEventBus(), channelId, manager.getEmoticons(), manager.getProfiles());
     }
 
     @Override
     public String getName() { return "Chzzk"; }
 
+    public String getChannelId() { return channelId; }
+
     @Override
     public void start() {
         if (channelId == null || channelId.isEmpty()) return;
         running = true;
 
-        // Run connection logic asynchronously
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::connect);
+        // Connects once the watcher sees the stream open; nothing here blocks the caller
+        manager.getLiveWatcher().watch(this);
     }
 
-    private void connect() {
-        try {
-            // 1. Get Chat Channel ID
-            String channelResponse;
-            try {
-                // Try live-detail first
-                String channelUrl = "https://api.chzzk.naver.com/service/v1/channels/" + channelId + "/live-detail";
-                channelResponse = HttpUtil.get(channelUrl);
-            } catch (Exception e) {
-                // If live-detail fails (e.g. 500 error), try live-status
-                plugin.getLogger().warning("live-detail API failed (" + e.getMessage() + "), trying live-status API...");
-                String fallbackUrl = "https://api.chzzk.naver.com/polling/v2/channels/" + channelId + "/live-status";
-                channelResponse = HttpUtil.get(fallbackUrl);
+    /** Called by the live watcher after every status check. */
+    synchronized void onLiveStatus(boolean open, String newChatChannelId) {
+        if (!running) return;
+        if (open) {
+            boolean moved = live && !newChatChannelId.equals(chatChannelId);
+            chatChannelId = newChatChannelId;
+            if (live && !moved) return;
+            if (moved) {
+                plugin.getLogger().info("Chzzk chat channel changed (" + channelId + "), reconnecting...");
+                closeConnection("Chat channel changed");
+            } else {
+                plugin.getLogger().info("Chzzk channel " + channelId + " went live, connecting...");
+                manager.getEmoticons().prefetch(channelId); // Loads alongside the token request
             }
-            
-            JsonObject channelJson = JsonParser.parseString(channelResponse).getAsJsonObject();
-            if (!channelJson.has("content") || channelJson.get("content").isJsonNull()) {
-                plugin.getLogger().warning("Invalid Chzzk Channel ID or Channel Not Found. Response: " + channelResponse);
+            live = true;
+            backoff.reset();
+            connect();
+        } else if (live) {
+            plugin.getLogger().info("Chzzk channel " + channelId + " went offline, closing chat.");
+            live = false;
+            closeConnection("Stream ended");
+            disconnectedAt = 0; // Offline time is not downtime
+        }
+    }
+
+    private void connect() {
+        if (!running || !live) return;
+        ChzzkEndpoints endpoints = manager.getEndpoints();
+        String chatChannel = chatChannelId;
+
+        // 1. Get Access Token for the chat channel the watcher reported
+        HttpUtil.getAsync(endpoints.accessToken(chatChannel), JsonParser::parseReader)
+                .thenAccept(tokenJson -> {
+                    if (!readAccessToken(tokenJson)) {
+                        scheduleReconnect();
+                        return;
+                    }
+                    openSocket(endpoints, chatChannel);
+                })
+                .exceptionally(e -> {
+                    plugin.getLogger().warning("Error connecting to Chzzk (" + channelId + "): " + causeMessage(e));
+                    scheduleReconnect();
+                    return null;
+                });
+    }
+
+    private boolean readAccessToken(JsonElement response) {
+        JsonObject tokenJson = response.getAsJsonObject();
+        if (!tokenJson.has("content") || tokenJson.get("content").isJsonNull()) {
+             plugin.getLogger().warning("Failed to get Chzzk Access Token. Response: " + response);
+             return false;
+        }
+
+        JsonObject tokenContent = tokenJson.get("content").getAsJsonObject();
+        accessToken = tokenContent.has("accessToken") ? tokenContent.get("accessToken").getAsString() : null;
+        extraToken = tokenContent.has("extraToken") ? tokenContent.get("extraToken").getAsString() : "";
+
+        if (accessToken == null) {
+            plugin.getLogger().warning("Chzzk Access Token is null.");
+            return false;
+        }
+        return true;
+    }
+
+    private void openSocket(ChzzkEndpoints endpoints, String chatChannel) {
+        // 2. Connect WebSocket on the shard the chat channel lives on
+        if (!running || !live) return;
+        Request request = new Request.Builder().url(endpoints.chatServer(chatChannel)).build();
+        Connection attempt = new Connection(chatChannel);
+        Connection previous = connection;
+        connection = attempt;
+        if (previous != null && previous.socket != null) { // A stale reconnect raced a live transition
+            previous.stopHeartbeat();
+            previous.socket.close(1000, "Superseded");
+        }
+        attempt.socket = manager.getClient().newWebSocket(request, attempt);
+    }
+
+    private static String causeMessage(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
+    }
+
+    private void scheduleReconnect() {
+        if (!running || !reconnectPending.compareAndSet(false, true)) return;
+
+        long delay = backoff.nextDelayMillis();
+        plugin.getLogger().info("Reconnecting to Chzzk (" + channelId + ") in " + delay + "ms...");
+        manager.getScheduler().schedule(() -> {
+            reconnectPending.set(false);
+            if (!running || !live) return;
+            reconnects.incrementAndGet();
+            connect();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void handleConnected() {
+        backoff.reset();
+        connected = true;
+        if (disconnectedAt > 0) {
+            totalDowntimeMillis += System.currentTimeMillis() - disconnectedAt;
+            disconnectedAt = 0;
+        }
+    }
+
+    /** Called once per lost connection. */
+    private void handleDisconnect(Connection lost) {
+        lost.stopHeartbeat();
+        connection = null;
+        if (connected) {
+            connected = false;
+            disconnectedAt = System.currentTimeMillis();
+        }
+        if (live) scheduleReconnect(); // If the stream ended, the watcher brings it back when it reopens
+    }
+
+    /** Closes the current socket on purpose; its callbacks are ignored from here on. */
+    private void closeConnection(String reason) {
+        Connection current = connection;
+        connection = null;
+        connected = false;
+        if (current != null) {
+            current.stopHeartbeat();
+            if (current.socket != null) current.socket.close(1000, reason);
+        }
+    }
+
+    /**
+     * Listener for one connection attempt. Owns its heartbeat, so a dropped
+     * connection can never leave a ping task behind.
+     */
+    private class Connection extends WebSocketListener {
+        private static final String PING = "{\"ver\":\"2\",\"cmd\":0}";
+        private static final String PONG = "{\"ver\":\"2\",\"cmd\":10000}";
+
+        private final String chatChannel;
+        volatile WebSocket socket;
+        private ScheduledFuture<?> heartbeat;
+        private volatile long lastFrameAt = System.nanoTime();
+        private volatile long pingSentAt = 0; // 0 when no ping is outstanding
+
+        Connection(String chatChannel) {
+            this.chatChannel = chatChannel;
+        }
+
+        private synchronized void startHeartbeat() {
+            if (heartbeat != null) return;
+            long interval = manager.getHeartbeatIntervalMillis();
+            heartbeat = manager.getScheduler().scheduleAtFixedRate(this::beat, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void stopHeartbeat() {
+            if (heartbeat != null) heartbeat.cancel(false);
+        }
+
+        private void beat() {
+            if (this != connection || !running) {
+                stopHeartbeat();
                 return;
             }
-            
-            JsonObject contentJson = channelJson.get("content").getAsJsonObject();
-            if (!contentJson.has("chatChannelId")) {
-                plugin.getLogger().warning("Chzzk ChatChannelId not found in response. Response: " + channelResponse);
+
+            // Stale stream: not even a pong for too long, the socket is dead without knowing it
+            long idleMillis = (System.nanoTime() - lastFrameAt) / 1_000_000L;
+            if (idleMillis > manager.getIdleTimeoutMillis()) {
+                plugin.getLogger().warning("No Chzzk frames for " + idleMillis / 1000 + "s (" + channelId + "), reconnecting...");
+                idleReconnects.incrementAndGet();
+                handleDisconnect(this);
+                socket.cancel();
                 return;
             }
-            
-            chatChannelId = contentJson.get("chatChannelId").getAsString();
-
-            // 2. Get Access Token
-            String tokenUrl = "https://comm-api.game.naver.com/nng_main/v1/chats/access-token?channelId=" + chatChannelId + "&chatType=STREAMING";
-            String tokenResponse = HttpUtil.get(tokenUrl);
-            
-            JsonObject tokenJson = JsonParser.parseString(tokenResponse).getAsJsonObject();
-            if (!tokenJson.has("content") || tokenJson.get("content").isJsonNull()) {
-                 plugin.getLogger().warning("Failed to get Chzzk Access Token. Response: " + tokenResponse);
-                 return;
+
+            if (pingSentAt == 0) {
+                pingSentAt = System.nanoTime();
+                pingsSent.incrementAndGet();
+                socket.send(PING);
             }
-            
-            JsonObject tokenContent = tokenJson.get("content").getAsJsonObject();
-            accessToken = tokenContent.has("accessToken") ? tokenContent.get("accessToken").getAsString() : null;
-            extraToken = tokenContent.has("extraToken") ? tokenContent.get("extraToken").getAsString() : "";
+        }
 
-            if (accessToken == null) {
-                plugin.getLogger().warning("Chzzk Access Token is null.");
+        @Override
+        public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+            if (this != connection || !running) {
+                webSocket.close(1000, "Plugin disabled"); // Stopped while this attempt was in flight
                 return;
             }
+            plugin.getLogger().info("Connected to Chzzk WebSocket server. (" + channelId + ")");
+        
+            // 4. Send Auth Packet (CMD 100)
+            JsonObject authPacket = new JsonObject();
+            authPacket.addProperty("ver", "2");
+            authPacket.addProperty("cmd", 100);
+            authPacket.addProperty("svcid", "game");
+            authPacket.addProperty("cid", chatChannel);
 
-            // 3. Connect WebSocket
-            // Server ID can be random, using kr-ss1 for now.
-            String wsUrl = "wss://kr-ss1.chat.naver.com/chat";
-            Request request = new Request.Builder().url(wsUrl).build();
-            webSocket = client.newWebSocket(request, this);
+            JsonObject body = new JsonObject();
+            body.add("uid", null);
+            body.addProperty("devType", 2001);
+            body.addProperty("accTkn", accessToken);
+            body.addProperty("auth", "READ");
 
-        } catch (Exception e) {
-            plugin.getLogger().severe("Error connecting to Chzzk: " + e.getMessage());
-            e.printStackTrace();
-            running = false;
-        }
-    }
+            authPacket.add("bdy", body);
 
-    @Override
-    public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
-        plugin.getLogger().info("Connected to Chzzk WebSocket server.");
+            webSocket.send(gson.toJson(authPacket));
         
-        // 4. Send Auth Packet (CMD 100)
-        JsonObject authPacket = new JsonObject();
-        authPacket.addProperty("ver", "2");
-        authPacket.addProperty("cmd", 100);
-        authPacket.addProperty("svcid", "game");
-        authPacket.addProperty("cid", chatChannelId);
-
-        JsonObject body = new JsonObject();
-        body.add("uid", null);
-        body.addProperty("devType", 2001);
-        body.addProperty("accTkn", accessToken);
-        body.addProperty("auth", "READ");
-
-        authPacket.add("bdy", body);
-
-        webSocket.send(gson.toJson(authPacket));
-        
-        // Start Ping Task (CMD 0) every 20 seconds
-        startPingTask();
-    }
+            // App-level ping (CMD 0) and idle detection
+            startHeartbeat();
+        }
     
-    private void startPingTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!running || webSocket == null) {
-                    this.cancel();
-                    return;
+        @Override
+        public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
+            if (this != connection) return;
+            long receivedAt = System.nanoTime();
+            lastFrameAt = receivedAt;
+            int cmd = messageHandler.handleFrame(text, receivedAt);
+            if (cmd == 10000) { // Pong
+                long sentAt = pingSentAt;
+                if (sentAt != 0) {
+                    lastRttMillis = (System.nanoTime() - sentAt) / 1_000_000L;
+                    pingSentAt = 0;
                 }
-                JsonObject ping = new JsonObject();
-                ping.addProperty("ver", "2");
-                ping.addProperty("cmd", 0);
-                webSocket.send(gson.toJson(ping));
+                pongsReceived.incrementAndGet();
+            } else if (cmd == 0) { // Server ping
+                webSocket.send(PONG);
+            } else if (cmd == 10100) {
+                plugin.getLogger().info("Chzzk Authentication Successful! (" + channelId + ")");
+                handleConnected();
             }
-        }.runTaskTimerAsynchronously(plugin, 400L, 400L); // 20 seconds
-    }
+        }
 
-    @Override
-    public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
-        try {
-            JsonObject json = JsonParser.parseString(text).getAsJsonObject();
-            if (!json.has("cmd")) return;
-            int cmd = json.get("cmd").getAsInt();
-            
-            if (cmd == 10100) {
-                plugin.getLogger().info("Chzzk Authentication Successful!");
-            }
-            else if (cmd == 93101 || cmd == 93102) { // 93101 is standard for many live chats
-                if (json.has("bdy") && json.get("bdy").isJsonArray()) {
-                    JsonArray bdy = json.getAsJsonArray("bdy");
-                    for (JsonElement element : bdy) {
-                        processMessage(element.getAsJsonObject());
-                    }
-                }
-            }
-        } catch (Exception e) {
-             // plugin.getLogger().warning("Error parsing Chzzk message: " + e.getMessage());
+        @Override
+        public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+            plugin.getLogger().info("Chzzk WebSocket closing (" + channelId + "): " + code + " / " + reason);
+            webSocket.close(1000, null);
         }
-    }
-    
-    private void processMessage(JsonObject messageObj) {
-        // plugin.getLogger().info("Raw Msg: " + messageObj.toString()); 
-        
-        if (!messageObj.has("profile") || messageObj.get("profile").isJsonNull()) {
-            return; 
+
+        @Override
+        public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+            if (this != connection || !running) return;
+            handleDisconnect(this);
         }
 
-        String nickname = "Unknown";
-        try {
-            String profileJsonStr = messageObj.get("profile").getAsString();
-            JsonObject profile = JsonParser.parseString(profileJsonStr).getAsJsonObject();
-            nickname = profile.get("nickname").getAsString();
-        } catch (Exception ignored) {}
-        
-        String msg = messageObj.has("msg") && !messageObj.get("msg").isJsonNull() ? messageObj.get("msg").getAsString() : "";
-        int msgTypeCode = messageObj.has("msgTypeCode") ? messageObj.get("msgTypeCode").getAsInt() : 1;
-        
-        // Handle Chat (Standard=1, but we treat anything not 10 as chat if it has content or is type 1)
-        if (msgTypeCode != 10) {
-            // Even if message is empty (emojis only), we might want to show something or at least fire the event.
-            // For now, let's fire if it's not empty or specifically type 1.
-            if (!msg.isEmpty() || msgTypeCode == 1) {
-                String finalMsg = msg.isEmpty() ? "(이모티콘)" : msg;
-                Bukkit.getPluginManager().callEvent(new AsyncLiveChatEvent("Chzzk", nickname, finalMsg));
-            }
-        } else {
-            // Donation (msgTypeCode == 10)
-            if (messageObj.has("extras")) {
-                 try {
-                     String extrasStr = messageObj.get("extras").getAsString();
-                     JsonObject extras = JsonParser.parseString(extrasStr).getAsJsonObject();
-                     
-                     if (extras.has("payAmount")) {
-                         int payAmount = extras.get("payAmount").getAsInt();
-                         String donationMsg = (msg == null || msg.isEmpty()) ? "치즈 후원" : msg; 
-                         Bukkit.getPluginManager().callEvent(new AsyncLiveDonationEvent("Chzzk", nickname, donationMsg, payAmount));
-                     }
-                 } catch (Exception ignored) {}
-            }
+        @Override
+        public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, @Nullable Response response) {
+            if (this != connection || !running) return;
+            plugin.getLogger().warning("Chzzk WebSocket failure (" + channelId + "): " + t.getMessage());
+            handleDisconnect(this);
         }
     }
 
-    @Override
-    public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
-        plugin.getLogger().info("Chzzk WebSocket closing: " + code + " / " + reason);
-        webSocket.close(1000, null);
+    public long getMalformedFrames() { return messageHandler.getMalformedFrames(); }
+
+    public boolean isConnected() { return connected; }
+
+    /** Whether the stream was open at the last live-status check. */
+    public boolean isLive() { return live; }
+
+    public int getReconnectCount() { return reconnects.get(); }
+
+    /** Total time spent disconnected after the first successful connection, including the current outage. */
+    public long getDowntimeMillis() {
+        long since = disconnectedAt;
+        return totalDowntimeMillis + (since > 0 ? System.currentTimeMillis() - since : 0);
     }
 
-    @Override
-    public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, @Nullable Response response) {
-        if (running) {
-             plugin.getLogger().warning("Chzzk WebSocket failure: " + t.getMessage());
-             // Reconnect logic could be added here
-        }
+    public int getPingsSent() { return pingsSent.get(); }
+
+    public int getPongsReceived() { return pongsReceived.get(); }
+
+    /** Round trip of the last answered ping, or -1 if none yet. */
+    public long getLastRttMillis() { return lastRttMillis; }
+
+    public int getIdleReconnectCount() { return idleReconnects.get(); }
+
+    /** Milliseconds since the current connection last received anything, or -1 when not connected. */
+    public long getLastFrameAgeMillis() {
+        Connection current = connection;
+        return current == null ? -1 : (System.nanoTime() - current.lastFrameAt) / 1_000_000L;
     }
 
     @Override
     public void stop() {
         running = false;
-        if (webSocket != null) {
-            webSocket.close(1000, "Plugin disabled");
-        }
-        client.dispatcher().executorService().shutdown();
+        manager.getLiveWatcher().unwatch(this);
+        closeConnection("Plugin disabled");
     }
 
     @Override
     public boolean isRunning() { return running; }
-}
\ No newline at end of file
+}
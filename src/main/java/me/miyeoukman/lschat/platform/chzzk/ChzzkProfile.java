@@ -0,0 +1,35 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import java.util.List;
+
+/**
+ * The decoded parts of a Chzzk chat profile. Immutable and shared by every
+ * message from the same user while {@link ChzzkProfileCache} holds it.
+ */
+final class ChzzkProfile {
+    final String userId;
+    final String nickname;
+    final String role;
+    final List<String> badges; // Unmodifiable
+    final int subscriptionMonths;
+    final int subscriptionTier;
+    // The profile JSON this was decoded from, so a changed profile is decoded again
+    final String source;
+    final long decodedAtMillis;
+
+    ChzzkProfile(String userId, String nickname, String role, List<String> badges, int subscriptionMonths,
+                 int subscriptionTier, String source, long decodedAtMillis) {
+        this.userId = userId;
+        this.nickname = nickname;
+        this.role = role;
+        this.badges = badges;
+        this.subscriptionMonths = subscriptionMonths;
+        this.subscriptionTier = subscriptionTier;
+        this.source = source;
+        this.decodedAtMillis = decodedAtMillis;
+    }
+
+    boolean isDecodedFrom(String source) {
+        return this.source.equals(source);
+    }
+}
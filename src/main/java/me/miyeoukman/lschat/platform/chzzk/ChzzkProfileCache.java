@@ -0,0 +1,66 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decoded chat profiles by userIdHash, so a regular who chats hundreds of times
+ * is decoded once: later messages with the same profile JSON reuse the cached
+ * nickname, role, badges and subscription. Roles and badge ids come from a
+ * small vocabulary and are interned across users. Bounded; entries are decoded
+ * again once they are older than the TTL, even if the JSON is unchanged.
+ */
+public class ChzzkProfileCache {
+    private final Map<String, ChzzkProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, String> symbols = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ChzzkProfileCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = Math.max(100, maxEntries);
+        this.ttlMillis = Math.max(1000, ttlMillis);
+    }
+
+    /** The cached profile for {@code userId} if it was decoded from the same JSON and is still fresh, else null. */
+    ChzzkProfile get(String userId, String source, long nowMillis) {
+        ChzzkProfile profile = profiles.get(userId);
+        if (profile != null && nowMillis - profile.decodedAtMillis < ttlMillis && profile.isDecodedFrom(source)) {
+            hits.increment();
+            return profile;
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(String userId, ChzzkProfile profile) {
+        profiles.put(userId, profile);
+        if (profiles.size() > maxEntries) evict(profile.decodedAtMillis);
+    }
+
+    /** Shared instance of a role or badge id; the vocabulary stays small, so this map does too. */
+    String symbol(String value) {
+        if (value == null) return null;
+        String existing = symbols.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private void evict(long nowMillis) {
+        // Stale entries first; during a flood of new chatters drop arbitrary ones down to 90%
+        profiles.values().removeIf(profile -> nowMillis - profile.decodedAtMillis >= ttlMillis);
+        int target = maxEntries - maxEntries / 10;
+        for (Iterator<String> it = profiles.keySet().iterator(); it.hasNext() && profiles.size() > target; ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public int size() { return profiles.size(); }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+}
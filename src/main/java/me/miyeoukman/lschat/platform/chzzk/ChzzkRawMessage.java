@@ -0,0 +1,187 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import me.miyeoukman.lschat.api.event.LiveMessageMetadata;
+import me.miyeoukman.lschat.api.event.RawLiveMessage;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Chzzk chat or donation as it came off the socket. The embedded profile and
+ * extras documents are only parsed when an event getter needs them, and the
+ * profile not at all when the cache already holds it; may be called from any
+ * thread.
+ */
+final class ChzzkRawMessage implements RawLiveMessage {
+    private static final String EMOTICON_ONLY = "(이모티콘)";
+    private static final String DONATION_DEFAULT = "치즈 후원";
+
+    private final String uid;
+    private final String profile;
+    private final String msg;
+    private final String extras;
+    private final long msgTime;
+    private final boolean donation;
+    private final String channelId;
+    private final ChzzkEmoticonResolver emoticons;
+    private final ChzzkProfileCache profiles;
+    private volatile ChzzkProfile decoded;
+
+    ChzzkRawMessage(ChzzkChatEntry entry, boolean donation, String channelId, ChzzkEmoticonResolver emoticons,
+                    ChzzkProfileCache profiles) {
+        this.uid = entry.uid;
+        this.profile = entry.profile;
+        this.msg = entry.msg;
+        this.extras = entry.extras;
+        this.msgTime = entry.msgTime;
+        this.donation = donation;
+        this.channelId = channelId;
+        this.emoticons = emoticons;
+        this.profiles = profiles;
+    }
+
+    @Override
+    public String decodeSender() {
+        return profile().nickname;
+    }
+
+    @Override
+    public String decodeMessage() {
+        // Emoticon-only chats have an empty msg
+        if (msg.isEmpty()) {
+            if (donation) return DONATION_DEFAULT;
+            String resolved = emoticons == null ? null : emoticons.resolveOnly(channelId, readEmojis());
+            return resolved != null ? resolved : EMOTICON_ONLY;
+        }
+        if (emoticons == null || !msg.contains("{:")) return msg;
+        return emoticons.resolve(channelId, msg, readEmojis());
+    }
+
+    @Override
+    public LiveMessageMetadata decodeMetadata() {
+        ChzzkProfile user = profile();
+        return new LiveMessageMetadata(user.userId, user.role, user.badges, user.subscriptionMonths,
+                user.subscriptionTier, readEmojis(), msgTime);
+    }
+
+    // Sender and metadata share one decode per message, and with a cache one per user
+    private ChzzkProfile profile() {
+        ChzzkProfile user = decoded;
+        if (user != null) return user;
+        long now = System.currentTimeMillis();
+        if (profiles != null && uid != null) user = profiles.get(uid, profile, now);
+        if (user == null) {
+            user = decodeProfile(now);
+            if (profiles != null && uid != null) profiles.put(uid, user);
+        }
+        decoded = user;
+        return user;
+    }
+
+    private ChzzkProfile decodeProfile(long nowMillis) {
+        String userId = uid;
+        String nickname = null;
+        String role = null;
+        List<String> badges = new ArrayList<>();
+        int[] subscription = new int[2]; // accumulativeMonth, tier
+        try {
+            JsonReader reader = new JsonReader(new StringReader(profile));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "userIdHash" -> userId = reader.nextString();
+                    case "nickname" -> nickname = reader.nextString();
+                    case "userRoleCode" -> role = reader.nextString();
+                    case "activityBadges" -> readBadges(reader, badges);
+                    case "streamingProperty" -> readSubscription(reader, subscription);
+                    default -> reader.skipValue();
+                }
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Keep whatever was read before the damage
+        }
+        if (profiles != null) {
+            role = profiles.symbol(role);
+            badges.replaceAll(profiles::symbol);
+        }
+        return new ChzzkProfile(userId, nickname != null ? nickname : "Unknown", role,
+                badges.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(badges),
+                subscription[0], subscription[1], profile, nowMillis);
+    }
+
+    private static void readBadges(JsonReader reader, List<String> badges) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginObject();
+            String badgeId = null;
+            boolean activated = true;
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("badgeId") && reader.peek() == JsonToken.STRING) badgeId = reader.nextString();
+                else if (name.equals("activated") && reader.peek() == JsonToken.BOOLEAN) activated = reader.nextBoolean();
+                else reader.skipValue();
+            }
+            reader.endObject();
+            if (badgeId != null && activated) badges.add(badgeId);
+        }
+        reader.endArray();
+    }
+
+    // streamingProperty.subscription.{accumulativeMonth,tier}
+    private static void readSubscription(JsonReader reader, int[] subscription) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("subscription") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("accumulativeMonth") && reader.peek() == JsonToken.NUMBER) subscription[0] = reader.nextInt();
+                else if (name.equals("tier") && reader.peek() == JsonToken.NUMBER) subscription[1] = reader.nextInt();
+                else reader.skipValue();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    private Map<String, String> readEmojis() {
+        if (extras == null) return Collections.emptyMap();
+        try {
+            JsonReader reader = new JsonReader(new StringReader(extras));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("emojis") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                Map<String, String> emojis = new LinkedHashMap<>(); // In message order, for emoticon-only chats
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String code = reader.nextName();
+                    if (reader.peek() == JsonToken.STRING) emojis.put(code, reader.nextString());
+                    else reader.skipValue();
+                }
+                reader.endObject();
+                return emojis;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // No usable emoji map
+        }
+        return Collections.emptyMap();
+    }
+}
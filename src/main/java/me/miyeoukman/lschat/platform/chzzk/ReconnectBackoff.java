@@ -0,0 +1,31 @@
+package me.miyeoukman.lschat.platform.chzzk;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter: the n-th delay is drawn from
+ * [d/2, d] where d = min(max, initial * 2^n), so a whole server's worth of
+ * channels dropped by one network blip does not reconnect in lockstep.
+ */
+public class ReconnectBackoff {
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private int attempt;
+
+    public ReconnectBackoff(long initialDelayMillis, long maxDelayMillis) {
+        this.initialDelayMillis = Math.max(100, initialDelayMillis);
+        this.maxDelayMillis = Math.max(this.initialDelayMillis, maxDelayMillis);
+    }
+
+    public synchronized long nextDelayMillis() {
+        long delay = initialDelayMillis << Math.min(attempt, 20);
+        if (delay <= 0 || delay > maxDelayMillis) delay = maxDelayMillis;
+        attempt++;
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    public synchronized void reset() {
+        attempt = 0;
+    }
+}
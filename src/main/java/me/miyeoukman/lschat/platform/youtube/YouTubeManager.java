@@ -0,0 +1,114 @@
+package me.miyeoukman.lschat.platform.youtube;
+
+import me.miyeoukman.lschat.Main;
+import me.miyeoukman.lschat.platform.LivePlatform;
+import me.miyeoukman.lschat.util.ExecutionScope;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every configured YouTube live chat on one shared scheduler thread. The
+ * polls themselves are asynchronous HTTP calls, so the thread only ever fires
+ * requests and never waits on them.
+ */
+public class YouTubeManager implements LivePlatform {
+    private final Main plugin;
+    private final List<String> configuredVideos;
+    private final String apiKey;
+    private final String apiUrl;
+    private final Map<String, YouTubePlatform> videos = new ConcurrentHashMap<>();
+
+    private final ExecutionScope scope;
+    private final YouTubeStateStore stateStore;
+    private final YouTubeQuotaBudget quota;
+    private final String quotaKeyId;
+    private ScheduledFuture<?> flushTask;
+    private volatile boolean running = false;
+
+    public YouTubeManager(Main plugin, List<String> videoIds, String apiKey, String apiUrl, YouTubeQuotaBudget quota) {
+        this.plugin = plugin;
+        this.configuredVideos = new ArrayList<>(videoIds);
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+        // Polls only fire async requests from the timer; nothing here blocks for long
+        this.scope = ExecutionScope.open("LSChat-YouTube", 2);
+        this.stateStore = new YouTubeStateStore(new File(plugin.getDataFolder(), "youtube-state.yml"), plugin.getLogger());
+        // Every video polled with this key draws from the same daily budget
+        this.quota = quota;
+        this.quotaKeyId = Integer.toHexString(apiKey == null ? 0 : apiKey.hashCode());
+        stateStore.restoreQuota(quotaKeyId, quota);
+    }
+
+    @Override
+    public String getName() { return "YouTube"; }
+
+    @Override
+    public void start() {
+        if (apiKey == null || apiKey.isEmpty()) {
+            plugin.getLogger().warning("YouTube API Key is missing.");
+            return;
+        }
+        running = true;
+        flushTask = scope.scheduler().scheduleWithFixedDelay(this::saveState, 10, 10, TimeUnit.SECONDS);
+        for (String videoId : configuredVideos) {
+            startVideo(videoId);
+        }
+    }
+
+    public boolean startVideo(String videoId) {
+        if (!running || videoId == null || videoId.isEmpty()) return false;
+        YouTubePlatform platform = new YouTubePlatform(plugin, videoId, this);
+        if (videos.putIfAbsent(videoId, platform) != null) return false;
+        platform.start();
+        return true;
+    }
+
+    public boolean stopVideo(String videoId) {
+        YouTubePlatform platform = videos.remove(videoId);
+        if (platform == null) return false;
+        platform.stop();
+        return true;
+    }
+
+    public Collection<YouTubePlatform> getVideos() {
+        return Collections.unmodifiableCollection(videos.values());
+    }
+
+    String getApiKey() { return apiKey; }
+
+    String getApiUrl() { return apiUrl; }
+
+    ScheduledExecutorService getScheduler() { return scope.scheduler(); }
+
+    YouTubeStateStore getStateStore() { return stateStore; }
+
+    public YouTubeQuotaBudget getQuota() { return quota; }
+
+    private void saveState() {
+        stateStore.saveQuota(quotaKeyId, quota);
+        stateStore.flush();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (String videoId : new ArrayList<>(videos.keySet())) {
+            stopVideo(videoId);
+        }
+        if (flushTask != null) flushTask.cancel(false);
+        scope.close(2000);
+        saveState();
+    }
+
+    @Override
+    public boolean isRunning() { return running; }
+}
@@ -0,0 +1,133 @@
+package me.miyeoukman.lschat.platform.youtube;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.metrics.PlatformCounters;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns liveChat/messages pages into LSChat events and tracks the page token.
+ * Kept apart from the polling loop in {@link YouTubePlatform}.
+ */
+public class YouTubeMessageHandler {
+    private static final long DEFAULT_INTERVAL = 5000; // Default fallback
+
+    private volatile String nextPageToken;
+    private volatile boolean offline = false;
+    private final PlatformCounters counters = Metrics.platform(PlatformId.YOUTUBE.getName());
+    private final LiveEventBus bus;
+    private final String videoId;
+    // Reused per page; a page's items are published as one batch
+    private final List<AsyncLiveChatEvent> chats = new ArrayList<>();
+    private final List<AsyncLiveDonationEvent> donations = new ArrayList<>();
+
+    public YouTubeMessageHandler(LiveEventBus bus) {
+        this(bus, "");
+    }
+
+    public YouTubeMessageHandler(LiveEventBus bus, String videoId) {
+        this.bus = bus;
+        this.videoId = videoId;
+    }
+
+    public long handlePage(String response) {
+        return handlePage(JsonParser.parseString(response), System.nanoTime());
+    }
+
+    /** Reads the page straight from the response body. */
+    public long handlePage(Reader body) {
+        long receivedAt = System.nanoTime();
+        return handlePage(JsonParser.parseReader(body), receivedAt);
+    }
+
+    /** Fires events for every item on the page and returns the next polling interval in milliseconds. */
+    private long handlePage(JsonElement response, long receivedAtNanos) {
+        JsonObject json = response.getAsJsonObject();
+
+        long nextInterval = DEFAULT_INTERVAL;
+        if (json.has("pollingIntervalMillis")) {
+             nextInterval = json.get("pollingIntervalMillis").getAsLong();
+        }
+
+        if (json.has("nextPageToken")) {
+            nextPageToken = json.get("nextPageToken").getAsString();
+        }
+
+        // Set once the broadcast has ended; no more messages will arrive
+        offline = json.has("offlineAt") && !json.get("offlineAt").isJsonNull();
+
+        JsonArray items = json.getAsJsonArray("items");
+        if (items != null) {
+            for (JsonElement item : items) {
+                try {
+                    processMessage(item.getAsJsonObject(), receivedAtNanos);
+                } catch (RuntimeException e) {
+                    counters.parseError(); // Skip the item, not the whole page
+                }
+            }
+            publish(receivedAtNanos);
+        }
+
+        return nextInterval;
+    }
+
+    private void processMessage(JsonObject item, long receivedAtNanos) {
+        JsonObject snippet = item.getAsJsonObject("snippet");
+        JsonObject authorDetails = item.getAsJsonObject("authorDetails");
+        String type = snippet.get("type").getAsString();
+
+        // Handle SuperChat and Standard Chat
+        if ("superChatEvent".equals(type)) {
+            JsonObject superChatDetails = snippet.getAsJsonObject("superChatDetails");
+            String amount = superChatDetails.get("amountDisplayString").getAsString();
+            String userComment = superChatDetails.has("userComment") ? superChatDetails.get("userComment").getAsString() : "";
+
+            // Extract numeric amount (simplified)
+            double amountValue = 0;
+            try {
+                amountValue = Double.parseDouble(amount.replaceAll("[^0-9.]", ""));
+            } catch (NumberFormatException ignored) {}
+
+            counters.donation();
+            donations.add(new AsyncLiveDonationEvent(PlatformId.YOUTUBE, videoId,
+                    new YouTubeRawMessage(snippet, authorDetails, userComment), amountValue, receivedAtNanos));
+        } else if ("textMessageEvent".equals(type)) { // Standard chat
+            String displayMessage = snippet.has("displayMessage") ? snippet.get("displayMessage").getAsString() : "";
+            counters.message();
+            chats.add(new AsyncLiveChatEvent(PlatformId.YOUTUBE, videoId,
+                    new YouTubeRawMessage(snippet, authorDetails, displayMessage), receivedAtNanos));
+        }
+    }
+
+    private void publish(long receivedAtNanos) {
+        int count = chats.size() + donations.size();
+        if (count == 0) return;
+        try {
+            bus.publishAll(AsyncLiveChatEvent.class, chats);
+            bus.publishAll(AsyncLiveDonationEvent.class, donations);
+        } finally {
+            chats.clear();
+            donations.clear();
+        }
+        long dispatchNanos = System.nanoTime() - receivedAtNanos;
+        for (int i = 0; i < count; i++) {
+            Metrics.DISPATCH.recordNanos(dispatchNanos);
+        }
+    }
+
+    public String getNextPageToken() { return nextPageToken; }
+
+    public void setNextPageToken(String nextPageToken) { this.nextPageToken = nextPageToken; }
+
+    public boolean isOffline() { return offline; }
+}
@@ -1,173 +1,193 @@
 package me.miyeoukman.lschat.platform.youtube;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import me.miyeoukman.lschat.Main;
-import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
-import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
 import me.miyeoukman.lschat.platform.LivePlatform;
 import me.miyeoukman.lschat.util.HttpUtil;
-import org.bukkit.Bukkit;
-import org.bukkit.scheduler.BukkitRunnable;
+import okhttp3.HttpUrl;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One YouTube live chat. Polls liveChat/messages on the manager's scheduler,
+ * waiting exactly the pollingIntervalMillis the API asks for (or longer, when
+ * the shared quota budget says so), and only asks for the fields the handler reads.
+ */
 public class YouTubePlatform implements LivePlatform {
+    // Partial responses: everything YouTubeMessageHandler reads, nothing else
+    private static final String VIDEO_FIELDS = "items(liveStreamingDetails(activeLiveChatId))";
+    private static final String MESSAGE_FIELDS = "nextPageToken,pollingIntervalMillis,offlineAt,"
+            + "items(snippet(type,publishedAt,displayMessage,superChatDetails(amountDisplayString,userComment)),"
+            + "authorDetails(channelId,displayName,isVerified,isChatOwner,isChatSponsor,isChatModerator))";
+    private static final long ERROR_RETRY_MILLIS = 10000;
+
     private final Main plugin;
     private final String videoId;
-    private final String apiKey;
-    private boolean running = false;
-    private String liveChatId;
-    private String nextPageToken;
-    private long pollingInterval = 5000; // Default 5 seconds (YouTube recommends adaptive polling)
+    private final YouTubeManager manager;
+    private volatile boolean running = false;
+    private volatile String liveChatId;
+    private final YouTubeMessageHandler messageHandler;
 
-    public YouTubePlatform(Main plugin, String videoId, String apiKey) {
+    private int maxResults = 500;
+    private boolean polling = false;
+    private ScheduledFuture<?> nextPoll;
+    private CompletableFuture<?> inFlight;
+
+    public YouTubePlatform(Main plugin, String videoId, YouTubeManager manager) {
         this.plugin = plugin;
         this.videoId = videoId;
-        this.apiKey = apiKey;
+        this.manager = manager;
+        this.messageHandler = new YouTubeMessageHandler(plugin.getEventBus(), videoId);
     }
 
     @Override
     public String getName() { return "YouTube"; }
 
+    public String getVideoId() { return videoId; }
+
     @Override
     public void start() {
-        if (videoId == null || videoId.isEmpty() || apiKey == null || apiKey.isEmpty()) {
-            plugin.getLogger().warning("YouTube Video ID or API Key is missing.");
+        if (videoId == null || videoId.isEmpty()) {
+            plugin.getLogger().warning("YouTube Video ID is missing.");
             return;
         }
         running = true;
 
-        // Run setup asynchronously
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!fetchLiveChatId()) {
-                    plugin.getLogger().warning("Failed to get YouTube Live Chat ID. Check Video ID or if the stream is live.");
-                    running = false;
-                    return;
-                }
-                
-                // Start polling loop
+        fetchLiveChatId().whenComplete((found, error) -> {
+            if (!running) return;
+            if (error != null) {
+                plugin.getLogger().warning("Error fetching Live Chat ID: " + error.getMessage());
+            }
+            if (error != null || !found) {
+                plugin.getLogger().warning("Failed to get YouTube Live Chat ID. Check Video ID or if the stream is live.");
+                running = false;
+                return;
+            }
+
+            // Resume after the last page we saw, if this stream was polled before
+            String savedToken = manager.getStateStore().getPageToken(liveChatId);
+            if (savedToken != null) {
+                messageHandler.setNextPageToken(savedToken);
+                plugin.getLogger().info("Resuming YouTube chat " + videoId + " from the saved page token.");
+            }
+            plugin.getLogger().info("YouTube platform initialized. (" + videoId + ")");
+            synchronized (this) {
+                if (!running) return;
                 startPolling();
+                scheduleNextPoll(0);
             }
-        }.runTaskAsynchronously(plugin);
+        });
     }
 
-    private boolean fetchLiveChatId() {
-        try {
-            String url = "https://www.googleapis.com/youtube/v3/videos?part=liveStreamingDetails&id=" + videoId + "&key=" + apiKey;
-            String response = HttpUtil.get(url);
-            JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+    private CompletableFuture<Boolean> fetchLiveChatId() {
+        HttpUrl.Builder url = endpoint("/videos");
+        if (url == null) return CompletableFuture.failedFuture(invalidApiUrl());
+        url.addQueryParameter("part", "liveStreamingDetails")
+                .addQueryParameter("id", videoId)
+                .addQueryParameter("fields", VIDEO_FIELDS);
+        manager.getQuota().spend(YouTubeQuotaBudget.VIDEOS_COST);
+        return HttpUtil.getAsync(url.build().toString(), JsonParser::parseReader).thenApply(response -> {
+            JsonObject json = response.getAsJsonObject();
             JsonArray items = json.getAsJsonArray("items");
-            
-            if (items.size() == 0) return false;
-            
+
+            if (items == null || items.size() == 0) return false;
+
             JsonObject details = items.get(0).getAsJsonObject().getAsJsonObject("liveStreamingDetails");
             if (details != null && details.has("activeLiveChatId")) {
                 liveChatId = details.get("activeLiveChatId").getAsString();
                 return true;
             }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Error fetching Live Chat ID: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return false;
+            return false;
+        });
     }
 
-    private void startPolling() {
-        // Initial poll
-        scheduleNextPoll(0);
+    private synchronized void scheduleNextPoll(long delayMillis) {
+        if (!running) return;
+        nextPoll = manager.getScheduler().schedule(this::poll, delayMillis, TimeUnit.MILLISECONDS);
     }
-    
-    private void scheduleNextPoll(long delayMillis) {
+
+    private synchronized void poll() {
         if (!running) return;
-        
-        // Convert millis to ticks (20 ticks = 1 second, so millis / 50)
-        long delayTicks = Math.max(1, delayMillis / 50);
-        
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!running) return;
-                try {
-                    long nextInterval = pollMessages();
-                    scheduleNextPoll(nextInterval);
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Error polling YouTube chat: " + e.getMessage());
-                    // Retry after 10 seconds on error
-                    scheduleNextPoll(10000);
-                }
+        // Keep the request's own future: cancelling it is what cancels the HTTP call
+        CompletableFuture<Long> request = pollMessages();
+        inFlight = request;
+        request.whenComplete((nextInterval, error) -> {
+            if (!running) return;
+            if (error != null) {
+                plugin.getLogger().warning("Error polling YouTube chat: " + error.getMessage());
+                scheduleNextPoll(ERROR_RETRY_MILLIS);
+                return;
             }
-        }.runTaskLaterAsynchronously(plugin, delayTicks);
+
+            manager.getStateStore().setPageToken(liveChatId, messageHandler.getNextPageToken());
+            if (messageHandler.isOffline()) {
+                plugin.getLogger().info("YouTube stream " + videoId + " has ended.");
+                running = false;
+                stopPolling();
+                return;
+            }
+
+            YouTubeQuotaBudget quota = manager.getQuota();
+            long interval = quota.nextIntervalMillis(nextInterval);
+            maxResults = quota.maxResultsFor(interval, nextInterval);
+            scheduleNextPoll(interval);
+        });
     }
-    
-    // Returns the next polling interval in milliseconds
-    private long pollMessages() throws Exception {
-        String url = "https://www.googleapis.com/youtube/v3/liveChat/messages?liveChatId=" + liveChatId + "&part=snippet,authorDetails&key=" + apiKey;
+
+    // Completes with the next polling interval in milliseconds
+    private CompletableFuture<Long> pollMessages() {
+        HttpUrl.Builder url = endpoint("/liveChat/messages");
+        if (url == null) return CompletableFuture.failedFuture(invalidApiUrl());
+        url.addQueryParameter("liveChatId", liveChatId)
+                .addQueryParameter("part", "snippet,authorDetails")
+                .addQueryParameter("maxResults", String.valueOf(maxResults))
+                .addQueryParameter("fields", MESSAGE_FIELDS);
+        String nextPageToken = messageHandler.getNextPageToken();
         if (nextPageToken != null) {
-            url += "&pageToken=" + nextPageToken;
+            url.addQueryParameter("pageToken", nextPageToken);
         }
 
-        String response = HttpUtil.get(url);
-        JsonObject json = JsonParser.parseString(response).getAsJsonObject();
-        
-        long nextInterval = 5000; // Default fallback
-        if (json.has("pollingIntervalMillis")) {
-             nextInterval = json.get("pollingIntervalMillis").getAsLong();
-        }
+        manager.getQuota().spend(YouTubeQuotaBudget.MESSAGES_COST);
+        return HttpUtil.getAsync(url.build().toString(), messageHandler::handlePage);
+    }
 
-        if (json.has("nextPageToken")) {
-            nextPageToken = json.get("nextPageToken").getAsString();
-        }
+    // Query values are percent-encoded by HttpUrl; null if api-url is not a valid URL
+    private HttpUrl.Builder endpoint(String path) {
+        HttpUrl url = HttpUrl.parse(manager.getApiUrl() + path);
+        return url == null ? null : url.newBuilder().addQueryParameter("key", manager.getApiKey());
+    }
 
-        JsonArray items = json.getAsJsonArray("items");
-        if (items != null) {
-            for (JsonElement item : items) {
-                processMessage(item.getAsJsonObject());
-            }
-        }
-        
-        return nextInterval;
+    private IllegalArgumentException invalidApiUrl() {
+        return new IllegalArgumentException("Invalid YouTube api-url: " + manager.getApiUrl());
     }
 
-    private void processMessage(JsonObject item) {
-        JsonObject snippet = item.getAsJsonObject("snippet");
-        JsonObject authorDetails = item.getAsJsonObject("authorDetails");
-        
-        String type = snippet.get("type").getAsString();
-        String displayName = authorDetails.get("displayName").getAsString();
-        String displayMessage = "";
-        
-        if (snippet.has("displayMessage")) {
-            displayMessage = snippet.get("displayMessage").getAsString();
-        }
-        
-        // Handle SuperChat and Standard Chat
-        if ("superChatEvent".equals(type)) {
-            JsonObject superChatDetails = snippet.getAsJsonObject("superChatDetails");
-            String amount = superChatDetails.get("amountDisplayString").getAsString();
-            String userComment = superChatDetails.has("userComment") ? superChatDetails.get("userComment").getAsString() : "";
-            
-            // Extract numeric amount (simplified)
-            double amountValue = 0;
-            try {
-                amountValue = Double.parseDouble(amount.replaceAll("[^0-9.]", ""));
-            } catch (NumberFormatException ignored) {}
-            
-            Bukkit.getPluginManager().callEvent(new AsyncLiveDonationEvent("YouTube", displayName, userComment, amountValue));
-            
-        } else if ("textMessageEvent".equals(type)) { // Standard chat
-            Bukkit.getPluginManager().callEvent(new AsyncLiveChatEvent("YouTube", displayName, displayMessage));
-        }
+    private synchronized void startPolling() {
+        if (polling) return;
+        polling = true;
+        manager.getQuota().pollerStarted();
+    }
+
+    private synchronized void stopPolling() {
+        if (!polling) return;
+        polling = false;
+        manager.getQuota().pollerStopped();
     }
 
     @Override
-    public void stop() {
+    public synchronized void stop() {
         running = false;
+        if (nextPoll != null) nextPoll.cancel(false);
+        if (inFlight != null) inFlight.cancel(true);
+        stopPolling();
+        if (liveChatId != null) {
+            manager.getStateStore().setPageToken(liveChatId, messageHandler.getNextPageToken());
+        }
     }
 
     @Override
     public boolean isRunning() { return running; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package me.miyeoukman.lschat.platform.youtube;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Daily YouTube Data API quota for one API key, shared by every poller using it.
+ * Spreads the remaining units over the rest of the expected stream (or the rest
+ * of the quota day, whichever ends first) and stretches the poll interval when
+ * the API's own pollingIntervalMillis would overspend.
+ */
+public class YouTubeQuotaBudget {
+    /** liveChatMessages.list */
+    static final int MESSAGES_COST = 5;
+    /** videos.list */
+    static final int VIDEOS_COST = 1;
+
+    private static final int DEFAULT_MAX_RESULTS = 500;
+    private static final int MAX_MAX_RESULTS = 2000;
+    // Never plan for less than this much stream left, so overruns don't burn the rest in minutes
+    private static final long MIN_WINDOW_MILLIS = 30 * 60 * 1000L;
+    // Quota resets at midnight Pacific time
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+
+    private final long dailyUnits;
+    private final long expectedStreamMillis;
+
+    private LocalDate day;
+    private long used;
+    private int activePollers;
+    private long streamStartMillis;
+    private volatile long lastIntervalMillis;
+
+    public YouTubeQuotaBudget(long dailyUnits, double expectedStreamHours) {
+        this.dailyUnits = dailyUnits;
+        this.expectedStreamMillis = (long) (expectedStreamHours * 3600_000L);
+        this.day = LocalDate.now(QUOTA_ZONE);
+    }
+
+    /** Restores units already spent today, e.g. before a reload. */
+    public synchronized void restore(LocalDate savedDay, long savedUsed) {
+        if (day.equals(savedDay)) used = Math.max(used, savedUsed);
+    }
+
+    public synchronized void spend(int units) {
+        rollover();
+        used += units;
+    }
+
+    synchronized void pollerStarted() {
+        rollover();
+        if (activePollers++ == 0) streamStartMillis = System.currentTimeMillis();
+    }
+
+    synchronized void pollerStopped() {
+        if (activePollers > 0) activePollers--;
+    }
+
+    /**
+     * Delay before a poller's next messages call: the API's interval, or longer
+     * if the budget can't afford it. Waits for the quota reset once exhausted.
+     */
+    public synchronized long nextIntervalMillis(long apiIntervalMillis) {
+        rollover();
+        long now = System.currentTimeMillis();
+        long untilReset = millisUntilReset();
+        long remaining = dailyUnits - used;
+        long interval;
+        if (remaining < MESSAGES_COST) {
+            interval = untilReset;
+        } else {
+            long streamLeft = Math.max(expectedStreamMillis - (now - streamStartMillis), MIN_WINDOW_MILLIS);
+            long window = Math.min(streamLeft, untilReset);
+            long calls = remaining / MESSAGES_COST;
+            interval = Math.max(apiIntervalMillis, window * Math.max(activePollers, 1) / calls);
+        }
+        lastIntervalMillis = interval;
+        return interval;
+    }
+
+    /** Larger pages when polling slower than the API asks, so nothing falls off between polls. */
+    public int maxResultsFor(long intervalMillis, long apiIntervalMillis) {
+        if (apiIntervalMillis <= 0 || intervalMillis <= apiIntervalMillis) return DEFAULT_MAX_RESULTS;
+        double stretch = (double) intervalMillis / apiIntervalMillis;
+        return (int) Math.min(MAX_MAX_RESULTS, Math.ceil(DEFAULT_MAX_RESULTS * stretch));
+    }
+
+    private void rollover() {
+        LocalDate today = LocalDate.now(QUOTA_ZONE);
+        if (!today.equals(day)) {
+            day = today;
+            used = 0;
+            streamStartMillis = System.currentTimeMillis();
+        }
+    }
+
+    private static long millisUntilReset() {
+        ZonedDateTime now = ZonedDateTime.now(QUOTA_ZONE);
+        ZonedDateTime reset = now.toLocalDate().plusDays(1).atStartOfDay(QUOTA_ZONE);
+        return Math.max(Duration.between(now, reset).toMillis(), 1000L);
+    }
+
+    public synchronized LocalDate getDay() { return day; }
+
+    public synchronized long getUsed() {
+        rollover();
+        return used;
+    }
+
+    public synchronized long getRemaining() {
+        rollover();
+        return Math.max(dailyUnits - used, 0);
+    }
+
+    public long getDailyUnits() { return dailyUnits; }
+
+    public synchronized int getActivePollers() { return activePollers; }
+
+    public long getLastIntervalMillis() { return lastIntervalMillis; }
+}
@@ -0,0 +1,63 @@
+package me.miyeoukman.lschat.platform.youtube;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import me.miyeoukman.lschat.api.event.LiveMessageMetadata;
+import me.miyeoukman.lschat.api.event.RawLiveMessage;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** A liveChatMessages item; metadata is read from authorDetails only when asked for. */
+final class YouTubeRawMessage implements RawLiveMessage {
+    private final JsonObject snippet;
+    private final JsonObject authorDetails;
+    private final String message;
+
+    YouTubeRawMessage(JsonObject snippet, JsonObject authorDetails, String message) {
+        this.snippet = snippet;
+        this.authorDetails = authorDetails;
+        this.message = message;
+    }
+
+    @Override
+    public String decodeSender() {
+        JsonElement displayName = authorDetails.get("displayName");
+        return displayName == null || displayName.isJsonNull() ? "Unknown" : displayName.getAsString();
+    }
+
+    @Override
+    public String decodeMessage() {
+        return message;
+    }
+
+    @Override
+    public LiveMessageMetadata decodeMetadata() {
+        String role = null;
+        List<String> badges = new ArrayList<>();
+        if (flag("isChatOwner")) role = "owner";
+        else if (flag("isChatModerator")) role = "moderator";
+        if (flag("isChatSponsor")) badges.add("member");
+        if (flag("isVerified")) badges.add("verified");
+
+        long timestamp = 0;
+        JsonElement publishedAt = snippet.get("publishedAt");
+        if (publishedAt != null && !publishedAt.isJsonNull()) {
+            try {
+                timestamp = Instant.parse(publishedAt.getAsString()).toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+        JsonElement channelId = authorDetails.get("channelId");
+        return new LiveMessageMetadata(channelId == null ? null : channelId.getAsString(), role, badges,
+                0, 0, Collections.emptyMap(), timestamp);
+    }
+
+    private boolean flag(String name) {
+        JsonElement value = authorDetails.get(name);
+        return value != null && !value.isJsonNull() && value.getAsBoolean();
+    }
+}
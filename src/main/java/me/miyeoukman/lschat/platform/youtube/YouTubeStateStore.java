@@ -0,0 +1,97 @@
+package me.miyeoukman.lschat.platform.youtube;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the last nextPageToken per live chat in youtube-state.yml, so a
+ * reload or restart resumes where it left off instead of replaying the backlog.
+ * Keyed by liveChatId, so a token never leaks into a different stream. Quota
+ * spent today is kept here too, keyed by a hash of the API key.
+ */
+public class YouTubeStateStore {
+    private final File file;
+    private final Logger logger;
+    private final Map<String, String> pageTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> quotaDays = new ConcurrentHashMap<>();
+    private final Map<String, Long> quotaUsed = new ConcurrentHashMap<>();
+    private volatile boolean dirty = false;
+
+    public YouTubeStateStore(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+        if (!file.exists()) return;
+
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection chats = yaml.getConfigurationSection("chats");
+        if (chats != null) {
+            for (String liveChatId : chats.getKeys(false)) {
+                String token = chats.getString(liveChatId + ".page-token");
+                if (token != null) pageTokens.put(liveChatId, token);
+            }
+        }
+        ConfigurationSection quota = yaml.getConfigurationSection("quota");
+        if (quota != null) {
+            for (String keyId : quota.getKeys(false)) {
+                String day = quota.getString(keyId + ".day");
+                if (day == null) continue;
+                quotaDays.put(keyId, day);
+                quotaUsed.put(keyId, quota.getLong(keyId + ".used", 0));
+            }
+        }
+    }
+
+    public String getPageToken(String liveChatId) {
+        return pageTokens.get(liveChatId);
+    }
+
+    public void setPageToken(String liveChatId, String token) {
+        if (token == null || token.equals(pageTokens.put(liveChatId, token))) return;
+        dirty = true;
+    }
+
+    /** Restores the units a key already spent today into the budget. */
+    public void restoreQuota(String keyId, YouTubeQuotaBudget budget) {
+        String day = quotaDays.get(keyId);
+        if (day == null) return;
+        try {
+            budget.restore(LocalDate.parse(day), quotaUsed.getOrDefault(keyId, 0L));
+        } catch (RuntimeException e) {
+            logger.warning("Ignoring invalid YouTube quota state for " + keyId);
+        }
+    }
+
+    public void saveQuota(String keyId, YouTubeQuotaBudget budget) {
+        String day = budget.getDay().toString();
+        long used = budget.getUsed();
+        Long previous = quotaUsed.put(keyId, used);
+        if (!day.equals(quotaDays.put(keyId, day)) || previous == null || previous != used) dirty = true;
+    }
+
+    /** Writes the file if anything changed since the last flush. */
+    public synchronized void flush() {
+        if (!dirty) return;
+        dirty = false;
+        YamlConfiguration yaml = new YamlConfiguration();
+        for (Map.Entry<String, String> entry : pageTokens.entrySet()) {
+            yaml.set("chats." + entry.getKey() + ".page-token", entry.getValue());
+        }
+        for (Map.Entry<String, String> entry : quotaDays.entrySet()) {
+            yaml.set("quota." + entry.getKey() + ".day", entry.getValue());
+            yaml.set("quota." + entry.getKey() + ".used", quotaUsed.get(entry.getKey()));
+        }
+        try {
+            yaml.save(file);
+        } catch (IOException e) {
+            dirty = true;
+            logger.warning("Failed to save YouTube state: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package me.miyeoukman.lschat.relay;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveMessageEvent;
+import me.miyeoukman.lschat.api.event.RawLiveMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Wire format between relay nodes. Every frame is [int length][byte type][body]:
+ * <ul>
+ *   <li>HELLO: [int version][utf secret], follower to leader, once</li>
+ *   <li>BATCH: [int count] then per event [byte kind][utf platform][utf channel][utf sender][utf message]
+ *       plus [double amount] for donations; an empty batch is a keep-alive</li>
+ * </ul>
+ */
+final class RelayCodec {
+    static final int VERSION = 2;
+    static final byte HELLO = 0;
+    static final byte BATCH = 1;
+    static final int MAX_FRAME = 4 * 1024 * 1024;
+
+    private static final byte CHAT = 0;
+    private static final byte DONATION = 1;
+
+    private RelayCodec() {}
+
+    static byte[] hello(String secret) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(HELLO);
+        out.writeInt(VERSION);
+        out.writeUTF(secret);
+        return withLength(bytes.toByteArray());
+    }
+
+    static byte[] batch(List<AsyncLiveMessageEvent> events) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + events.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(BATCH);
+        out.writeInt(events.size());
+        for (AsyncLiveMessageEvent event : events) {
+            boolean donation = event instanceof AsyncLiveDonationEvent;
+            out.writeByte(donation ? DONATION : CHAT);
+            out.writeUTF(event.getPlatform());
+            out.writeUTF(event.getChannel());
+            out.writeUTF(truncate(event.getSender()));
+            out.writeUTF(truncate(event.getMessage()));
+            if (donation) out.writeDouble(((AsyncLiveDonationEvent) event).getAmount());
+        }
+        return withLength(bytes.toByteArray());
+    }
+
+    /** Reads the next frame's type and leaves the stream at its body. */
+    static byte readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 1 || length > MAX_FRAME) throw new IOException("Bad relay frame length " + length);
+        return in.readByte();
+    }
+
+    /** Reads a BATCH body, handing each event to the sink. */
+    static void readBatch(DataInputStream in, EventSink sink) throws IOException {
+        int count = in.readInt();
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            byte kind = in.readByte();
+            PlatformId platform = PlatformId.of(in.readUTF());
+            String channel = in.readUTF();
+            RawLiveMessage raw = RawLiveMessage.of(in.readUTF(), in.readUTF());
+            if (kind == DONATION) {
+                sink.donation(new AsyncLiveDonationEvent(platform, channel, raw, in.readDouble(), now));
+            } else {
+                sink.chat(new AsyncLiveChatEvent(platform, channel, raw, now));
+            }
+        }
+    }
+
+    interface EventSink {
+        void chat(AsyncLiveChatEvent event);
+
+        void donation(AsyncLiveDonationEvent event);
+    }
+
+    private static byte[] withLength(byte[] frame) {
+        int length = frame.length - 4;
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        return frame;
+    }
+
+    // writeUTF is limited to 65535 encoded bytes; chat lines never get close
+    private static String truncate(String value) {
+        return value.length() > 16000 ? value.substring(0, 16000) : value;
+    }
+}
@@ -0,0 +1,129 @@
+package me.miyeoukman.lschat.relay;
+
+import me.miyeoukman.lschat.Main;
+import me.miyeoukman.lschat.api.LiveEventBus;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.metrics.Metrics;
+import me.miyeoukman.lschat.platform.LivePlatform;
+import me.miyeoukman.lschat.platform.chzzk.ReconnectBackoff;
+import me.miyeoukman.lschat.util.ExecutionScope;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for every upstream platform on a follower node: receives the
+ * leader's batches over one TCP connection and publishes them on the local
+ * event bus, so rendering, filtering and delivery work exactly as if the
+ * events had arrived from Chzzk or YouTube directly.
+ */
+public class RelayFollower implements LivePlatform {
+    private static final int READ_TIMEOUT_MILLIS = 30000; // Three missed keep-alives
+
+    private final Main plugin;
+    private final InetSocketAddress leader;
+    private final String secret;
+    private final ReconnectBackoff backoff = new ReconnectBackoff(1000, 30000);
+    private volatile boolean running = false;
+    private volatile boolean connected = false;
+    private volatile Socket socket;
+    private ExecutionScope scope;
+
+    public RelayFollower(Main plugin, InetSocketAddress leader, String secret) {
+        this.plugin = plugin;
+        this.leader = leader;
+        this.secret = secret;
+    }
+
+    @Override
+    public String getName() { return "Relay"; }
+
+    @Override
+    public void start() {
+        running = true;
+        scope = ExecutionScope.open("LSChat-Relay", 1);
+        scope.io().execute(this::runLoop);
+    }
+
+    private void runLoop() {
+        LiveEventBus bus = plugin.getEventBus();
+        List<AsyncLiveChatEvent> chats = new ArrayList<>();
+        List<AsyncLiveDonationEvent> donations = new ArrayList<>();
+        RelayCodec.EventSink sink = new RelayCodec.EventSink() {
+            @Override
+            public void chat(AsyncLiveChatEvent event) {
+                Metrics.platform(event.getPlatform()).message();
+                chats.add(event);
+            }
+
+            @Override
+            public void donation(AsyncLiveDonationEvent event) {
+                Metrics.platform(event.getPlatform()).donation();
+                donations.add(event);
+            }
+        };
+
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(leader, 5000);
+                connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+                connection.setTcpNoDelay(true);
+                connection.getOutputStream().write(RelayCodec.hello(secret));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 65536));
+
+                while (running) {
+                    byte type = RelayCodec.readFrame(in);
+                    if (type != RelayCodec.BATCH) throw new IOException("Unexpected relay frame " + type);
+                    RelayCodec.readBatch(in, sink);
+                    if (!connected) {
+                        connected = true;
+                        backoff.reset();
+                        plugin.getLogger().info("Connected to relay leader " + leader + ".");
+                    }
+                    try {
+                        bus.publishAll(AsyncLiveChatEvent.class, chats);
+                        bus.publishAll(AsyncLiveDonationEvent.class, donations);
+                    } finally {
+                        chats.clear();
+                        donations.clear();
+                    }
+                }
+            } catch (IOException e) {
+                if (!running) break;
+                if (connected) plugin.getLogger().warning("Lost relay leader " + leader + ": " + e.getMessage());
+                else plugin.getLogger().fine("Relay leader " + leader + " unreachable: " + e.getMessage());
+            }
+            connected = false;
+            try {
+                Thread.sleep(backoff.nextDelayMillis());
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    public boolean isConnected() { return connected; }
+
+    @Override
+    public void stop() {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+            }
+        }
+        if (scope != null) scope.close(1000);
+    }
+
+    @Override
+    public boolean isRunning() { return running; }
+}
@@ -0,0 +1,259 @@
+package me.miyeoukman.lschat.relay;
+
+import me.miyeoukman.lschat.Main;
+import me.miyeoukman.lschat.api.Subscription;
+import me.miyeoukman.lschat.api.event.AsyncLiveChatEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveDonationEvent;
+import me.miyeoukman.lschat.api.event.AsyncLiveMessageEvent;
+import me.miyeoukman.lschat.loadtest.LoadGeneratorPlatform;
+import me.miyeoukman.lschat.platform.LivePlatform;
+import me.miyeoukman.lschat.util.ExecutionScope;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The relay node that owns the upstream connections. Everything published on
+ * the local event bus is batched every interval into one binary frame and
+ * written to each connected follower.
+ */
+public class RelayLeader implements LivePlatform {
+    private static final int MAX_PENDING = 10000;
+    private static final int FOLLOWER_BACKLOG = 256; // Frames; a follower this far behind loses frames
+    private static final long KEEP_ALIVE_MILLIS = 10000;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 2000;
+    private static final int MAX_HANDSHAKES = 8; // Connections still owing a hello; more are closed at once
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 5000;
+
+    private final Main plugin;
+    private final InetSocketAddress bind;
+    private final String secret;
+    private final long batchIntervalMillis;
+
+    private final ConcurrentLinkedQueue<AsyncLiveMessageEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Set<Follower> followers = ConcurrentHashMap.newKeySet();
+    private final LongAdder droppedFrames = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final Semaphore handshakes = new Semaphore(MAX_HANDSHAKES);
+    private volatile boolean running = false;
+    private ExecutionScope scope;
+    private ServerSocket server;
+    private Subscription chatSubscription;
+    private Subscription donationSubscription;
+    private long lastSentMillis;
+
+    public RelayLeader(Main plugin, InetSocketAddress bind, String secret, long batchIntervalMillis) {
+        this.plugin = plugin;
+        this.bind = bind;
+        this.secret = secret;
+        this.batchIntervalMillis = Math.max(10, batchIntervalMillis);
+    }
+
+    @Override
+    public String getName() { return "Relay"; }
+
+    @Override
+    public void start() {
+        try {
+            server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(bind);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Relay leader could not listen on " + bind + ": " + e.getMessage());
+            return;
+        }
+        running = true;
+        scope = ExecutionScope.open("LSChat-Relay", 64);
+        scope.io().execute(this::acceptLoop);
+        chatSubscription = plugin.getEventBus().subscribe(AsyncLiveChatEvent.class, this::enqueue);
+        donationSubscription = plugin.getEventBus().subscribe(AsyncLiveDonationEvent.class, this::enqueue);
+        scope.scheduler().scheduleWithFixedDelay(this::flush, batchIntervalMillis, batchIntervalMillis, TimeUnit.MILLISECONDS);
+        plugin.getLogger().info("Relay leader listening on " + bind + ".");
+    }
+
+    private void enqueue(AsyncLiveMessageEvent event) {
+        if (LoadGeneratorPlatform.isGenerated(event)) return; // Load tests stay on this server
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            droppedEvents.increment();
+            return;
+        }
+        pending.offer(event);
+    }
+
+    private void acceptLoop() {
+        long backoffMillis = 0;
+        while (running) {
+            Socket socket;
+            try {
+                socket = server.accept();
+                backoffMillis = 0;
+            } catch (IOException e) {
+                if (!running) return;
+                // Persistent failures (e.g. out of file descriptors) would otherwise spin
+                backoffMillis = Math.min(MAX_ACCEPT_BACKOFF_MILLIS, Math.max(100, backoffMillis * 2));
+                plugin.getLogger().warning("Relay accept failed, retrying in " + backoffMillis + "ms: " + e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                continue;
+            }
+            // Hellos are read off this thread, so a silent client never holds up the next one
+            if (!handshakes.tryAcquire()) {
+                plugin.getLogger().warning("Relay follower " + socket.getRemoteSocketAddress() + " refused: too many pending handshakes.");
+                closeQuietly(socket);
+                continue;
+            }
+            try {
+                scope.io().execute(() -> connect(socket));
+            } catch (RejectedExecutionException e) {
+                handshakes.release();
+                plugin.getLogger().warning("Relay follower " + socket.getRemoteSocketAddress() + " refused: no thread left.");
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void connect(Socket socket) {
+        boolean accepted;
+        try {
+            accepted = handshake(socket);
+        } finally {
+            handshakes.release();
+        }
+        if (!accepted) return;
+        Follower follower = new Follower(socket);
+        followers.add(follower);
+        plugin.getLogger().info("Relay follower connected: " + socket.getRemoteSocketAddress());
+        follower.writeLoop();
+    }
+
+    private boolean handshake(Socket socket) {
+        try {
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            if (RelayCodec.readFrame(in) == RelayCodec.HELLO && in.readInt() == RelayCodec.VERSION
+                    && MessageDigest.isEqual(in.readUTF().getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8))) {
+                return true;
+            }
+            plugin.getLogger().warning("Rejected relay follower " + socket.getRemoteSocketAddress() + " (bad hello or secret).");
+        } catch (IOException ignored) {
+        }
+        closeQuietly(socket);
+        return false;
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void flush() {
+        List<AsyncLiveMessageEvent> batch = new ArrayList<>();
+        AsyncLiveMessageEvent event;
+        while ((event = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(event);
+        }
+        long now = System.currentTimeMillis();
+        if (batch.isEmpty() && now - lastSentMillis < KEEP_ALIVE_MILLIS) return;
+        if (followers.isEmpty()) return;
+        lastSentMillis = now;
+
+        byte[] frame;
+        try {
+            frame = RelayCodec.batch(batch);
+        } catch (IOException e) {
+            return; // In-memory stream
+        }
+        for (Follower follower : followers) {
+            if (!follower.queue.offer(frame)) droppedFrames.increment();
+        }
+    }
+
+    public int getFollowerCount() { return followers.size(); }
+
+    public long getDroppedFrames() { return droppedFrames.sum(); }
+
+    /** Events dropped before batching because the leader was MAX_PENDING behind. */
+    public long getDroppedEvents() { return droppedEvents.sum(); }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (chatSubscription != null) chatSubscription.unsubscribe();
+        if (donationSubscription != null) donationSubscription.unsubscribe();
+        try {
+            if (server != null) server.close();
+        } catch (IOException ignored) {
+        }
+        for (Follower follower : followers) {
+            follower.close();
+        }
+        if (scope != null) scope.close(1000);
+    }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    private final class Follower {
+        final Socket socket;
+        final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(FOLLOWER_BACKLOG);
+
+        Follower(Socket socket) {
+            this.socket = socket;
+        }
+
+        void writeLoop() {
+            try {
+                OutputStream out = socket.getOutputStream();
+                while (running) {
+                    byte[] frame = queue.take();
+                    out.write(frame);
+                    // Coalesce whatever else queued up behind it into the same flush
+                    while ((frame = queue.poll()) != null) {
+                        out.write(frame);
+                    }
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                if (running) plugin.getLogger().info("Relay follower disconnected: " + socket.getRemoteSocketAddress());
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            followers.remove(this);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
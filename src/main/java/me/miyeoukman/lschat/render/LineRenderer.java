@@ -0,0 +1,38 @@
+package me.miyeoukman.lschat.render;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+/**
+ * Immutable set of compiled templates. A line is rendered exactly once, on the
+ * platform thread, into components that every viewer receives as-is.
+ */
+public class LineRenderer {
+    private final MessageTemplate chatTemplate;
+    private final MessageTemplate donationTemplate;
+    private final MessageTemplate summaryTemplate;
+
+    public LineRenderer(String chatFormat, String donationFormat) {
+        this(chatFormat, donationFormat, "&6&l[DONATION] &e{count} donations &b({amount})");
+    }
+
+    public LineRenderer(String chatFormat, String donationFormat, String summaryFormat) {
+        this.chatTemplate = MessageTemplate.compile(chatFormat, "color", "platform", "sender", "message");
+        this.donationTemplate = MessageTemplate.compile(donationFormat, "streamer", "message", "amount", "platform");
+        this.summaryTemplate = MessageTemplate.compile(summaryFormat, "count", "amount", "platform");
+    }
+
+    public BaseComponent[] renderChat(PlatformId platform, String sender, String message) {
+        return TextComponent.fromLegacyText(chatTemplate.render(platform.getColor(), platform.getName(), sender, message));
+    }
+
+    public BaseComponent[] renderDonation(PlatformId platform, String sender, String message, double amount) {
+        return TextComponent.fromLegacyText(donationTemplate.render(sender, message, String.valueOf(amount), platform.getName()));
+    }
+
+    /** One line standing in for several small donations merged by the alert scheduler. */
+    public BaseComponent[] renderDonationSummary(PlatformId platform, int count, double total) {
+        return TextComponent.fromLegacyText(summaryTemplate.render(String.valueOf(count), String.valueOf(total), platform.getName()));
+    }
+}
@@ -0,0 +1,81 @@
+package me.miyeoukman.lschat.render;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A format string such as {@code "&6[{platform}] &f{sender}: {message}"} compiled
+ * once into literal parts (color codes already translated) and placeholder slots,
+ * so rendering a line is a single StringBuilder pass with no regex or replace.
+ */
+public class MessageTemplate {
+    private final String[] literals; // literals[i] comes before slots[i]; one extra trailing literal
+    private final int[] slots;       // index into the placeholder names given to compile()
+    private final int baseLength;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) length += literal.length();
+        this.baseLength = length;
+    }
+
+    /**
+     * Compiles a format. Placeholders are written as {name}; unknown names are kept
+     * as literal text. Values are passed to {@link #render} in the same order as
+     * {@code placeholders}.
+     */
+    public static MessageTemplate compile(String format, String... placeholders) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < format.length()) {
+            char c = format.charAt(i);
+            if (c == '{') {
+                int end = format.indexOf('}', i + 1);
+                if (end > 0) {
+                    int slot = indexOf(placeholders, format.substring(i + 1, end));
+                    if (slot >= 0) {
+                        literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+                        slots.add(slot);
+                        literal.setLength(0);
+                        i = end + 1;
+                        continue;
+                    }
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) slotArray[s] = slots.get(s);
+        return new MessageTemplate(literals.toArray(new String[0]), slotArray);
+    }
+
+    /** Renders the template into a legacy (section sign) string. */
+    public String render(String... values) {
+        int length = baseLength;
+        for (int slot : slots) length += values[slot].length();
+
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]).append(values[slots[i]]);
+        }
+        sb.append(literals[slots.length]);
+        return sb.toString();
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+}
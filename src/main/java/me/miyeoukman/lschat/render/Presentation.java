@@ -0,0 +1,31 @@
+package me.miyeoukman.lschat.render;
+
+import me.miyeoukman.lschat.alert.AlertSettings;
+import org.bukkit.Sound;
+
+/**
+ * Everything that decides how a line looks and sounds, swapped as one
+ * reference on reload so a message never mixes old and new settings.
+ * Lines already queued keep the look they were rendered with.
+ */
+public final class Presentation {
+    private final LineRenderer renderer;
+    private final boolean donationAlertEnabled;
+    private final Sound donationSound;
+    private final AlertSettings alerts;
+
+    public Presentation(LineRenderer renderer, boolean donationAlertEnabled, Sound donationSound, AlertSettings alerts) {
+        this.renderer = renderer;
+        this.donationAlertEnabled = donationAlertEnabled;
+        this.donationSound = donationSound;
+        this.alerts = alerts;
+    }
+
+    public LineRenderer getRenderer() { return renderer; }
+
+    public boolean isDonationAlertEnabled() { return donationAlertEnabled; }
+
+    public Sound getDonationSound() { return donationSound; }
+
+    public AlertSettings getAlerts() { return alerts; }
+}
@@ -0,0 +1,52 @@
+package me.miyeoukman.lschat.util;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Flattened copy of a configuration's leaf values, taken before and after a
+ * reload so only the parts whose settings actually changed are rebuilt.
+ */
+public final class ConfigSnapshot {
+    private final Map<String, Object> values;
+
+    private ConfigSnapshot(Map<String, Object> values) {
+        this.values = values;
+    }
+
+    public static ConfigSnapshot of(ConfigurationSection config) {
+        Map<String, Object> values = new HashMap<>();
+        for (String path : config.getKeys(true)) {
+            if (!config.isConfigurationSection(path)) values.put(path, config.get(path));
+        }
+        return new ConfigSnapshot(values);
+    }
+
+    /** True if any value under the section differs, not counting the ignored keys or subsections (relative to it). */
+    public boolean differs(ConfigSnapshot other, String section, String... ignored) {
+        String prefix = section + ".";
+        List<String> skip = Arrays.asList(ignored);
+        return differsFrom(other, prefix, skip) || other.differsFrom(this, prefix, skip);
+    }
+
+    private boolean differsFrom(ConfigSnapshot other, String prefix, List<String> skip) {
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            String path = entry.getKey();
+            if (!path.startsWith(prefix) || isSkipped(path.substring(prefix.length()), skip)) continue;
+            if (!Objects.equals(entry.getValue(), other.values.get(path))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSkipped(String relativePath, List<String> skip) {
+        for (String key : skip) {
+            if (relativePath.equals(key) || relativePath.startsWith(key + ".")) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package me.miyeoukman.lschat.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads one subsystem (Chzzk, YouTube, HTTP lookups) runs on: an I/O
+ * executor for blocking work and one timer thread for short scheduled tasks.
+ * By default the I/O executor starts a virtual thread per task; in pool mode it
+ * is a capped pool of daemon threads. {@link #close} shuts both down and waits
+ * for running tasks, so a stopped subsystem leaves no threads behind.
+ */
+public final class ExecutionScope {
+    public enum Mode {
+        AUTO, VIRTUAL, POOL;
+
+        public static Mode fromConfig(String name) {
+            if (name == null) return AUTO;
+            try {
+                return Mode.valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return AUTO;
+            }
+        }
+    }
+
+    private static volatile boolean useVirtual = true;
+
+    private final String name;
+    private final boolean virtual;
+    private final ExecutorService io;
+    private final ScheduledExecutorService timer;
+
+    private ExecutionScope(String name, int maxPlatformThreads) {
+        this.name = name;
+        this.virtual = useVirtual;
+        this.io = virtual ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-IO-", 0).factory())
+                : new ThreadPoolExecutor(0, Math.max(1, maxPlatformThreads), 60, TimeUnit.SECONDS,
+                        new SynchronousQueue<>(), daemonThreads(name + "-IO"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads(name + "-Scheduler"));
+    }
+
+    /**
+     * Opens a scope. maxPlatformThreads caps the I/O pool in pool mode; it must
+     * cover every task that blocks for long (e.g. one per open WebSocket reader).
+     * Tasks beyond the cap are rejected.
+     */
+    public static ExecutionScope open(String name, int maxPlatformThreads) {
+        return new ExecutionScope(name, maxPlatformThreads);
+    }
+
+    /** Applies settings.threads.mode; affects scopes opened afterwards. */
+    public static void configure(Mode mode) {
+        useVirtual = mode != Mode.POOL;
+    }
+
+    public static boolean isUsingVirtualThreads() { return useVirtual; }
+
+    public ExecutorService io() { return io; }
+
+    /** Raises the pool-mode thread cap to at least maxPlatformThreads; never lowers it. */
+    public void ensureCapacity(int maxPlatformThreads) {
+        if (io instanceof ThreadPoolExecutor pool && pool.getMaximumPoolSize() < maxPlatformThreads) {
+            pool.setMaximumPoolSize(maxPlatformThreads);
+        }
+    }
+
+    /** Single platform thread for timers; keep scheduled tasks short and hand blocking work to {@link #io()}. */
+    public ScheduledExecutorService scheduler() { return timer; }
+
+    public boolean isVirtual() { return virtual; }
+
+    /**
+     * Stops the timer, lets running I/O tasks finish for up to timeoutMillis and
+     * interrupts whatever is left. Returns false if something had to be interrupted.
+     */
+    public boolean close(long timeoutMillis) {
+        timer.shutdownNow();
+        io.shutdown();
+        try {
+            if (io.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        io.shutdownNow();
+        return false;
+    }
+
+    public String getName() { return name; }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
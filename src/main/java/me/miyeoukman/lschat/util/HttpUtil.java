@@ -1,24 +1,114 @@
 package me.miyeoukman.lschat.util;
 
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Shared, non-blocking HTTP client. One OkHttp client (HTTP/2 and connection
+ * reuse), an HTTP cache that honors ETag / Cache-Control, explicit timeouts and
+ * a per-host concurrency limit. Bodies are streamed straight into the caller's
+ * decoder instead of being materialized into a String.
+ */
 public class HttpUtil {
-    private static final OkHttpClient client = new OkHttpClient();
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
 
-    public static String get(String url) throws IOException {
+    private static volatile OkHttpClient client = new OkHttpClient.Builder()
+            .connectTimeout(5, TimeUnit.SECONDS)
+            .readTimeout(10, TimeUnit.SECONDS)
+            .build();
+    private static Cache cache;
+
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(Reader body) throws IOException;
+    }
+
+    /**
+     * (Re)configures the shared client. The cache is created on the first call and
+     * kept across later calls, so reloading only swaps timeouts and limits.
+     */
+    public static synchronized void configure(File cacheDirectory, long cacheSizeBytes, long connectTimeoutMillis,
+                                              long readTimeoutMillis, int maxRequestsPerHost) {
+        if (cache == null && cacheDirectory != null && cacheSizeBytes > 0) {
+            cache = new Cache(cacheDirectory, cacheSizeBytes);
+        }
+        OkHttpClient.Builder builder = client.newBuilder()
+                .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(connectTimeoutMillis + readTimeoutMillis * 2, TimeUnit.MILLISECONDS);
+        if (cache != null) builder.cache(cache);
+        client = builder.build();
+        client.dispatcher().setMaxRequestsPerHost(Math.max(1, maxRequestsPerHost));
+    }
+
+    /**
+     * Runs calls on the given executor. maxConcurrent must not exceed what the
+     * executor can run at once; OkHttp queues the excess itself.
+     */
+    public static synchronized void useExecutor(ExecutorService executor, int maxConcurrent) {
+        Dispatcher dispatcher = new Dispatcher(executor);
+        dispatcher.setMaxRequests(Math.max(1, maxConcurrent));
+        dispatcher.setMaxRequestsPerHost(client.dispatcher().getMaxRequestsPerHost());
+        client = client.newBuilder().dispatcher(dispatcher).build();
+    }
+
+    public static synchronized void shutdown() {
+        client.dispatcher().cancelAll();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        if (cache != null) {
+            try {
+                cache.close();
+            } catch (IOException ignored) {}
+            cache = null;
+        }
+    }
+
+    /** GETs a URL and hands the body to {@code reader} on an OkHttp thread. */
+    public static <T> CompletableFuture<T> getAsync(String url, BodyReader<T> reader) {
         Request request = new Request.Builder()
                 .url(url)
-                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
+                .header("User-Agent", USER_AGENT)
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) throw new IOException("Unexpected code " + response);
-            if (response.body() == null) throw new IOException("Response body is null");
-            return response.body().string();
-        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (Response r = response) {
+                    if (!r.isSuccessful()) throw new IOException("Unexpected code " + r);
+                    ResponseBody body = r.body();
+                    if (body == null) throw new IOException("Response body is null");
+                    future.complete(reader.read(body.charStream()));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        // Cancelling the future cancels the request
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) call.cancel();
+        });
+        return future;
     }
 }
@@ -0,0 +1,77 @@
+package me.miyeoukman.lschat.viewer;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over every muted keyword of every viewer. Each keyword
+ * carries the bitset of viewers muting it, so a single case-insensitive pass
+ * over a message yields everyone who should not see it.
+ */
+final class KeywordMatcher {
+    private static final class Node {
+        final Map<Character, Node> next = new HashMap<>(4);
+        Node fail;
+        long[] mask; // Viewers muting any keyword ending here, including via fail links
+    }
+
+    private final Node root = new Node();
+    private final int words;
+
+    /** keywords maps each lower-case keyword to the viewers muting it. */
+    KeywordMatcher(Map<String, long[]> keywords, int words) {
+        this.words = words;
+        for (Map.Entry<String, long[]> entry : keywords.entrySet()) {
+            Node node = root;
+            for (char c : entry.getKey().toCharArray()) {
+                node = node.next.computeIfAbsent(c, k -> new Node());
+            }
+            node.mask = or(node.mask, entry.getValue());
+        }
+        // Breadth-first so a node's fail target is finished before the node itself
+        root.fail = root;
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.mask = or(node.mask, node.fail.mask);
+            for (Map.Entry<Character, Node> edge : node.next.entrySet()) {
+                Node fail = node.fail;
+                while (fail != root && !fail.next.containsKey(edge.getKey())) fail = fail.fail;
+                Node target = fail.next.get(edge.getKey());
+                edge.getValue().fail = target != null && target != edge.getValue() ? target : root;
+                queue.add(edge.getValue());
+            }
+        }
+    }
+
+    /** Viewers muting any keyword found in the text, or null if none matched. */
+    long[] match(String text) {
+        long[] hits = null;
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            while (node != root && !node.next.containsKey(c)) node = node.fail;
+            Node next = node.next.get(c);
+            node = next != null ? next : root;
+            if (node.mask != null) {
+                if (hits == null) hits = new long[words];
+                for (int w = 0; w < words; w++) hits[w] |= node.mask[w];
+            }
+        }
+        return hits;
+    }
+
+    private static long[] or(long[] a, long[] b) {
+        if (b == null) return a;
+        if (a == null) return b.clone();
+        long[] result = a.clone();
+        for (int i = 0; i < result.length; i++) result[i] |= b[i];
+        return result;
+    }
+}
@@ -0,0 +1,137 @@
+package me.miyeoukman.lschat.viewer;
+
+import me.miyeoukman.lschat.api.PlatformId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Every viewer's filter compiled into shared masks. Matching a message costs one
+ * keyword pass plus a few bitset operations, independent of how many viewers
+ * share a rule; the result is a bitset over {@link #getViewers()}.
+ * Immutable, rebuilt by the registry whenever viewers or filters change.
+ */
+public final class RecipientMatcher {
+    static final RecipientMatcher EMPTY = new RecipientMatcher(new Viewer[0]);
+
+    private final Viewer[] viewers;
+    private final int words;
+    private final long[] allMask;
+    private final long[][] platformMasks; // Viewers not hiding the platform, by PlatformId index
+    private final long[] chatMask;
+    private final int[] donationThresholds; // Indexes of viewers with a minimum donation
+    private final long[] channelRestricted; // Viewers subscribed to specific channels only
+    private final Map<String, long[]> channelMasks;
+    private final KeywordMatcher keywords;
+    private final Pattern[] patterns;
+    private final long[][] patternMasks;
+
+    RecipientMatcher(Viewer[] viewers) {
+        this.viewers = viewers;
+        this.words = (viewers.length + 63) >>> 6;
+        this.allMask = new long[words];
+        this.platformMasks = new long[PlatformId.values().size()][words];
+        this.chatMask = new long[words];
+        this.channelRestricted = new long[words];
+        this.channelMasks = new HashMap<>();
+
+        List<Integer> thresholds = new ArrayList<>();
+        Map<String, long[]> keywordMasks = new HashMap<>();
+        Map<String, long[]> patternByRegex = new LinkedHashMap<>();
+        for (int i = 0; i < viewers.length; i++) {
+            ViewerFilter filter = viewers[i].getFilter();
+            set(allMask, i);
+            for (PlatformId platform : PlatformId.values()) {
+                if (platform.getIndex() < platformMasks.length && !filter.isPlatformHidden(platform)) {
+                    set(platformMasks[platform.getIndex()], i);
+                }
+            }
+            if (filter.isShowChat()) set(chatMask, i);
+            if (filter.getMinDonation() > 0) thresholds.add(i);
+            if (!filter.getChannels().isEmpty()) {
+                set(channelRestricted, i);
+                for (String channel : filter.getChannels()) set(channelMasks.computeIfAbsent(channel, k -> new long[words]), i);
+            }
+            for (String word : filter.getMutedWords()) set(keywordMasks.computeIfAbsent(word, k -> new long[words]), i);
+            for (String regex : filter.getMutedPatterns()) set(patternByRegex.computeIfAbsent(regex, k -> new long[words]), i);
+        }
+        this.donationThresholds = thresholds.stream().mapToInt(Integer::intValue).toArray();
+        this.keywords = keywordMasks.isEmpty() ? null : new KeywordMatcher(keywordMasks, words);
+        this.patterns = new Pattern[patternByRegex.size()];
+        this.patternMasks = new long[patternByRegex.size()][];
+        int p = 0;
+        for (Map.Entry<String, long[]> entry : patternByRegex.entrySet()) {
+            patterns[p] = Pattern.compile(entry.getKey());
+            patternMasks[p++] = entry.getValue();
+        }
+    }
+
+    public Viewer[] getViewers() { return viewers; }
+
+    /**
+     * Viewers that should receive the message. Any thread; amount is ignored for chat.
+     * Synthetic lines (limiter notices) pass an empty channel and skip channel filters.
+     */
+    public long[] match(PlatformId platform, String channel, String text, boolean donation, double amount) {
+        // A platform registered after this matcher was built cannot be hidden by anyone yet
+        long[] bits = (platform.getIndex() < platformMasks.length ? platformMasks[platform.getIndex()] : allMask).clone();
+        if (donation) {
+            for (int i : donationThresholds) {
+                if (amount < viewers[i].getFilter().getMinDonation()) bits[i >>> 6] &= ~(1L << i);
+            }
+        } else {
+            and(bits, chatMask);
+        }
+        if (!channel.isEmpty()) {
+            long[] allowed = channelMasks.get(channel);
+            for (int w = 0; w < words; w++) {
+                bits[w] &= ~(channelRestricted[w] & ~(allowed == null ? 0 : allowed[w]));
+            }
+        }
+        if (text == null || text.isEmpty() || isEmpty(bits)) return bits;
+
+        if (keywords != null) {
+            long[] muted = keywords.match(text);
+            if (muted != null) andNot(bits, muted);
+        }
+        for (int p = 0; p < patterns.length; p++) {
+            // Only run a regex if somebody who mutes it is still a recipient
+            if (intersects(bits, patternMasks[p]) && patterns[p].matcher(text).find()) andNot(bits, patternMasks[p]);
+        }
+        return bits;
+    }
+
+    static boolean contains(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void and(long[] bits, long[] mask) {
+        for (int w = 0; w < bits.length; w++) bits[w] &= mask[w];
+    }
+
+    private static void andNot(long[] bits, long[] mask) {
+        for (int w = 0; w < bits.length; w++) bits[w] &= ~mask[w];
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((a[w] & b[w]) != 0) return true;
+        }
+        return false;
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package me.miyeoukman.lschat.viewer;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import org.bukkit.entity.Player;
+
+/**
+ * A player currently watching the live chat, plus their per-viewer preferences.
+ */
+public class Viewer {
+    private final Player player;
+    private volatile ViewerFilter filter;
+
+    public Viewer(Player player) {
+        this(player, ViewerFilter.DEFAULT);
+    }
+
+    public Viewer(Player player, ViewerFilter filter) {
+        this.player = player;
+        this.filter = filter;
+    }
+
+    public Player getPlayer() { return player; }
+
+    public ViewerFilter getFilter() { return filter; }
+
+    /** Changes take effect once the registry recompiles its matcher. */
+    void setFilter(ViewerFilter filter) { this.filter = filter; }
+
+    public boolean accepts(PlatformId platform) {
+        return !filter.isPlatformHidden(platform);
+    }
+}
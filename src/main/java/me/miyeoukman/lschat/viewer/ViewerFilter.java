@@ -0,0 +1,133 @@
+package me.miyeoukman.lschat.viewer;
+
+import me.miyeoukman.lschat.api.PlatformId;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * One viewer's subscriptions and mutes. Immutable; every change produces a new
+ * filter and the registry recompiles its {@link RecipientMatcher}.
+ */
+public final class ViewerFilter {
+    public static final ViewerFilter DEFAULT = new ViewerFilter(new BitSet(), true, 0, Collections.emptyList(),
+            Collections.emptyList(), Collections.emptyList());
+
+    private final BitSet hiddenPlatforms; // Bit per PlatformId index; never modified after construction
+    private final boolean showChat;
+    private final double minDonation;
+    private final List<String> channels; // Empty means every channel
+    private final List<String> mutedWords; // Lower case
+    private final List<String> mutedPatterns;
+
+    private ViewerFilter(BitSet hiddenPlatforms, boolean showChat, double minDonation, List<String> channels,
+                         List<String> mutedWords, List<String> mutedPatterns) {
+        this.hiddenPlatforms = hiddenPlatforms;
+        this.showChat = showChat;
+        this.minDonation = Math.max(0, minDonation);
+        this.channels = Collections.unmodifiableList(channels);
+        this.mutedWords = Collections.unmodifiableList(mutedWords);
+        this.mutedPatterns = Collections.unmodifiableList(mutedPatterns);
+    }
+
+    public boolean isPlatformHidden(PlatformId platform) {
+        return hiddenPlatforms.get(platform.getIndex());
+    }
+
+    public boolean isShowChat() { return showChat; }
+
+    public double getMinDonation() { return minDonation; }
+
+    public List<String> getChannels() { return channels; }
+
+    public List<String> getMutedWords() { return mutedWords; }
+
+    public List<String> getMutedPatterns() { return mutedPatterns; }
+
+    public boolean isDefault() {
+        return hiddenPlatforms.isEmpty() && showChat && minDonation == 0 && channels.isEmpty()
+                && mutedWords.isEmpty() && mutedPatterns.isEmpty();
+    }
+
+    public ViewerFilter togglePlatform(PlatformId platform) {
+        BitSet hidden = (BitSet) hiddenPlatforms.clone();
+        hidden.flip(platform.getIndex());
+        return new ViewerFilter(hidden, showChat, minDonation, channels, mutedWords, mutedPatterns);
+    }
+
+    public ViewerFilter withShowChat(boolean value) {
+        return new ViewerFilter(hiddenPlatforms, value, minDonation, channels, mutedWords, mutedPatterns);
+    }
+
+    public ViewerFilter withMinDonation(double value) {
+        return new ViewerFilter(hiddenPlatforms, showChat, value, channels, mutedWords, mutedPatterns);
+    }
+
+    public ViewerFilter withChannel(String channel, boolean add) {
+        return new ViewerFilter(hiddenPlatforms, showChat, minDonation, edit(channels, channel, add), mutedWords, mutedPatterns);
+    }
+
+    public ViewerFilter withoutChannels() {
+        return new ViewerFilter(hiddenPlatforms, showChat, minDonation, new ArrayList<>(), mutedWords, mutedPatterns);
+    }
+
+    public ViewerFilter withMutedWord(String word, boolean add) {
+        return new ViewerFilter(hiddenPlatforms, showChat, minDonation, channels,
+                edit(mutedWords, word.toLowerCase(Locale.ROOT), add), mutedPatterns);
+    }
+
+    /** Throws PatternSyntaxException for an invalid regex. */
+    public ViewerFilter withMutedPattern(String regex, boolean add) {
+        if (add) Pattern.compile(regex);
+        return new ViewerFilter(hiddenPlatforms, showChat, minDonation, channels, mutedWords, edit(mutedPatterns, regex, add));
+    }
+
+    private static List<String> edit(List<String> list, String value, boolean add) {
+        List<String> copy = new ArrayList<>(list);
+        copy.remove(value);
+        if (add) copy.add(value);
+        return copy;
+    }
+
+    void save(ConfigurationSection section) {
+        List<String> hidden = new ArrayList<>();
+        for (PlatformId platform : PlatformId.values()) {
+            if (isPlatformHidden(platform)) hidden.add(platform.getName());
+        }
+        section.set("hidden-platforms", hidden);
+        section.set("show-chat", showChat);
+        section.set("min-donation", minDonation);
+        section.set("channels", channels);
+        section.set("muted-words", mutedWords);
+        section.set("muted-patterns", mutedPatterns);
+    }
+
+    static ViewerFilter load(ConfigurationSection section) {
+        BitSet hidden = new BitSet();
+        for (String name : section.getStringList("hidden-platforms")) {
+            PlatformId platform = PlatformId.find(name);
+            if (platform != null) hidden.set(platform.getIndex());
+        }
+        List<String> patterns = new ArrayList<>();
+        for (String regex : section.getStringList("muted-patterns")) {
+            try {
+                Pattern.compile(regex);
+                patterns.add(regex);
+            } catch (PatternSyntaxException ignored) {
+                // Dropped rather than failing the whole profile
+            }
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : section.getStringList("muted-words")) {
+            if (!word.isEmpty()) words.add(word.toLowerCase(Locale.ROOT));
+        }
+        return new ViewerFilter(hidden, section.getBoolean("show-chat", true), section.getDouble("min-donation", 0),
+                new ArrayList<>(section.getStringList("channels")), words, patterns);
+    }
+}
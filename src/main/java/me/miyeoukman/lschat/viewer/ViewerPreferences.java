@@ -0,0 +1,64 @@
+package me.miyeoukman.lschat.viewer;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-player filter files (plugins/LSChat/viewers/&lt;uuid&gt;.yml). Reads and writes
+ * happen on async tasks; loaded filters are handed back on the main thread.
+ */
+public class ViewerPreferences {
+    private final Plugin plugin;
+    private final File directory;
+    private final Map<UUID, ViewerFilter> pendingWrites = new ConcurrentHashMap<>();
+
+    public ViewerPreferences(Plugin plugin, File directory) {
+        this.plugin = plugin;
+        this.directory = directory;
+    }
+
+    public void load(UUID playerId, Consumer<ViewerFilter> onMainThread) {
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            ViewerFilter filter = ViewerFilter.DEFAULT;
+            File file = file(playerId);
+            if (file.isFile()) filter = ViewerFilter.load(YamlConfiguration.loadConfiguration(file));
+            ViewerFilter loaded = filter;
+            plugin.getServer().getScheduler().runTask(plugin, () -> onMainThread.accept(loaded));
+        });
+    }
+
+    public void save(UUID playerId, ViewerFilter filter) {
+        pendingWrites.put(playerId, filter);
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> write(playerId));
+    }
+
+    // Serialized and always writes the newest filter, so racing saves cannot go backwards
+    private synchronized void write(UUID playerId) {
+        ViewerFilter filter = pendingWrites.remove(playerId);
+        if (filter == null) return;
+        File file = file(playerId);
+        if (filter.isDefault()) {
+            if (file.exists() && !file.delete()) plugin.getLogger().warning("Failed to delete " + file.getName());
+            return;
+        }
+        YamlConfiguration yaml = new YamlConfiguration();
+        filter.save(yaml);
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("cannot create " + directory);
+            yaml.save(file);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save viewer preferences for " + playerId + ": " + e.getMessage());
+        }
+    }
+
+    private File file(UUID playerId) {
+        return new File(directory, playerId + ".yml");
+    }
+}
@@ -0,0 +1,125 @@
+package me.miyeoukman.lschat.viewer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live set of players that see the chat. The scoreboard tag stays the persisted
+ * source of truth; this registry mirrors it so fan-out never has to scan every
+ * online player. Mutated from the main thread only (join/quit/toggle/reload).
+ * Every change recompiles the viewers' filters into one {@link RecipientMatcher}.
+ */
+public class ViewerRegistry {
+    private static final Viewer[] EMPTY = new Viewer[0];
+
+    private final Map<UUID, Viewer> viewers = new ConcurrentHashMap<>();
+    private final Map<UUID, ViewerFilter> filters = new ConcurrentHashMap<>(); // Online players, loaded or edited
+    private volatile RecipientMatcher matcher = RecipientMatcher.EMPTY;
+    private volatile String viewTag;
+    private ViewerPreferences preferences;
+
+    public ViewerRegistry(String viewTag) {
+        this.viewTag = viewTag;
+    }
+
+    public void usePreferences(ViewerPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    /** Rebuilds the registry from the scoreboard tags of everyone online. */
+    public void seed(String viewTag) {
+        this.viewTag = viewTag;
+        viewers.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.getScoreboardTags().contains(viewTag)) {
+                viewers.put(player.getUniqueId(), new Viewer(player, filterOf(player)));
+            }
+            if (!filters.containsKey(player.getUniqueId())) loadFilter(player);
+        }
+        rebuildSnapshot();
+    }
+
+    public void handleJoin(Player player) {
+        if (player.getScoreboardTags().contains(viewTag)) {
+            viewers.put(player.getUniqueId(), new Viewer(player, filterOf(player)));
+            rebuildSnapshot();
+        }
+        loadFilter(player);
+    }
+
+    public void handleQuit(Player player) {
+        filters.remove(player.getUniqueId());
+        if (viewers.remove(player.getUniqueId()) != null) {
+            rebuildSnapshot();
+        }
+    }
+
+    /** Flips the player's view tag and returns true if they are now watching. */
+    public boolean toggle(Player player) {
+        if (player.getScoreboardTags().contains(viewTag)) {
+            player.removeScoreboardTag(viewTag);
+            viewers.remove(player.getUniqueId());
+            rebuildSnapshot();
+            return false;
+        }
+        player.addScoreboardTag(viewTag);
+        viewers.put(player.getUniqueId(), new Viewer(player, filterOf(player)));
+        rebuildSnapshot();
+        return true;
+    }
+
+    public Viewer get(Player player) {
+        return viewers.get(player.getUniqueId());
+    }
+
+    public ViewerFilter filterOf(Player player) {
+        return filters.getOrDefault(player.getUniqueId(), ViewerFilter.DEFAULT);
+    }
+
+    /** Replaces the player's filter, recompiles the matcher and persists it. */
+    public void setFilter(Player player, ViewerFilter filter) {
+        filters.put(player.getUniqueId(), filter);
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer != null) {
+            viewer.setFilter(filter);
+            rebuildSnapshot();
+        }
+        if (preferences != null) preferences.save(player.getUniqueId(), filter);
+    }
+
+    private void loadFilter(Player player) {
+        if (preferences == null) return;
+        UUID id = player.getUniqueId();
+        preferences.load(id, filter -> {
+            if (!player.isOnline() || filters.containsKey(id)) return; // Left, or edited while loading
+            filters.put(id, filter);
+            Viewer viewer = viewers.get(id);
+            if (viewer != null && !filter.isDefault()) {
+                viewer.setFilter(filter);
+                rebuildSnapshot();
+            }
+        });
+    }
+
+    /** Current viewers; the array must not be modified. */
+    public Viewer[] getViewers() {
+        return matcher.getViewers();
+    }
+
+    /** Compiled filters of the current viewers; safe to use from any thread. */
+    public RecipientMatcher getMatcher() {
+        return matcher;
+    }
+
+    public int size() {
+        return matcher.getViewers().length;
+    }
+
+    private void rebuildSnapshot() {
+        matcher = viewers.isEmpty() ? RecipientMatcher.EMPTY : new RecipientMatcher(viewers.values().toArray(EMPTY));
+    }
+}